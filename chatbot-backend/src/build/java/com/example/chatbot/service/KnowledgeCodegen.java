@@ -0,0 +1,344 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Build tool run by exec:java at generate-sources (see pom.xml), from src/build/java so it stays
+ * out of the application jar: validates data.json against data.schema.json, binds it exactly as a
+ * runtime load would, and writes GeneratedKnowledge.java, the resulting {@link KnowledgeContent}
+ * as constants, which the main compile then picks up. An invalid file fails the build.
+ * <p>
+ * The generated class holds a string table (every distinct string once), one array per list of
+ * records (services, projects, chunks, subjects with their alias lists...) and the content built
+ * from them; a record reachable twice, such as a project indexed under a sector, is referenced by
+ * its array slot rather than repeated. The string table and each array are spread over nested
+ * holder classes, each with its own static initializer kept under {@link #CODE_BUDGET} bytes of
+ * bytecode, so a growing data.json never hits the JVM's 64 KB per-method limit. What cannot be
+ * split that way (one oversized entry, an over-long string) fails the build with a message naming it.
+ */
+public final class KnowledgeCodegen {
+
+    static final String GENERATED_FILE = KnowledgeContent.GENERATED_CLASS.replace('.', '/') + ".java";
+
+    /** Estimated bytecode allowed in one static initializer; the JVM limit is 65535. */
+    static final int CODE_BUDGET = 48_000;
+    /** Strings per string-table holder, well under the constant pool's 65535 entries. */
+    static final int STRINGS_PER_HOLDER = 2048;
+    /** Largest string constant, in modified UTF-8 bytes. */
+    static final int MAX_LITERAL = 65_535;
+
+    // Pessimistic bytecode sizes of the generated expressions
+    private static final int REF = 7;          // getstatic, index, aaload
+    private static final int NEW = 7;          // new, dup, invokespecial
+    private static final int CALL = 3;         // invokestatic
+    private static final int BOXED = 6;        // constant push and valueOf
+    private static final int ARRAY = 6;        // length push, anewarray
+    private static final int ARRAY_SLOT = 5;   // dup, index push, aastore
+    private static final int INITIALIZER = ARRAY + 4;
+
+    private static final String PACKAGE = KnowledgeContent.class.getPackageName();
+    private static final String INDENT = "                ";
+
+    private record Ref(String expr, int cost) {
+    }
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    // Records placed in a holder array, and lists rendered from one, by identity
+    private final Map<Object, Ref> hoisted = new IdentityHashMap<>();
+    private final StringBuilder holders = new StringBuilder();
+    private boolean joins;
+    // Bytecode estimate of the expressions rendered since the last reset
+    private int cost;
+
+    private KnowledgeCodegen() {
+    }
+
+    /**
+     * Arguments: data.json, data.schema.json and the generated-sources root to write to.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: KnowledgeCodegen <data.json> <data.schema.json> <output dir>");
+        }
+        Path data = Path.of(args[0]);
+        Path schema = Path.of(args[1]);
+        Path out = Path.of(args[2]).resolve(GENERATED_FILE);
+
+        byte[] bytes = Files.readAllBytes(data);
+        JsonNode root = new ObjectMapper().readTree(bytes);
+        List<String> errors;
+        try (InputStream in = Files.newInputStream(schema)) {
+            errors = KnowledgeSchema.read(in).validate(root);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException(data + " does not match " + schema.getFileName() + ":\n  " + String.join("\n  ", errors));
+        }
+
+        String source = "generated:" + data.getFileName() + "#" + sha256(bytes);
+        String java;
+        try {
+            java = generate(CompanyQaService.content(root, source));
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException(data + " cannot be compiled in: " + e.getMessage(), e);
+        }
+        // Unchanged data keeps the file's timestamp, so the compiler has nothing to redo
+        if (Files.exists(out) && Files.readString(out, StandardCharsets.UTF_8).equals(java)) return;
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, java, StandardCharsets.UTF_8);
+        System.out.println("[KnowledgeCodegen] " + data + " -> " + out);
+    }
+
+    /**
+     * Java source of GeneratedKnowledge for the given content.
+     *
+     * @throws IllegalStateException when an entry cannot fit the class-file limits
+     */
+    static String generate(KnowledgeContent content) {
+        return new KnowledgeCodegen().render(content);
+    }
+
+    private String render(KnowledgeContent content) {
+        CompanyKnowledge company = content.company();
+        if (company != null) {
+            for (RecordComponent c : CompanyKnowledge.class.getRecordComponents()) {
+                if (c.getGenericType() instanceof ParameterizedType type && c.getType() == List.class
+                        && type.getActualTypeArguments()[0] instanceof Class<?> element) {
+                    hoist(constantName(c.getName()), element, (List<?>) value(c, company));
+                }
+            }
+        }
+        hoist("AUTOCOMPLETE", String.class, content.subjects());
+        hoist("CHUNKS", ChunkIndex.Chunk.class, content.chunks());
+        cost = 0;
+        String contentExpr = expr(content, "    ");
+        if (cost + INITIALIZER > CODE_BUDGET) {
+            throw new IllegalStateException("the KnowledgeContent constant needs about " + cost + " bytes of bytecode, over the "
+                    + CODE_BUDGET + " allowed per class");
+        }
+
+        StringBuilder java = new StringBuilder()
+                .append("package ").append(PACKAGE).append(";\n\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n")
+                .append("import java.util.function.Supplier;\n\n")
+                .append("/**\n")
+                .append(" * Knowledge base constants written by KnowledgeCodegen (").append(content.source()).append("). Do not edit.\n")
+                .append(" */\n")
+                .append("final class ").append(KnowledgeContent.GENERATED_CLASS.substring(PACKAGE.length() + 1))
+                .append(" implements Supplier<KnowledgeContent> {\n");
+        List<String> table = new ArrayList<>(strings.keySet());
+        for (int from = 0; from < table.size(); from += STRINGS_PER_HOLDER) {
+            java.append("\n    private static final class S_").append(from / STRINGS_PER_HOLDER).append(" {\n")
+                    .append("        static final String[] V = {\n");
+            for (String s : table.subList(from, Math.min(from + STRINGS_PER_HOLDER, table.size()))) {
+                java.append(INDENT).append(literal(s)).append(",\n");
+            }
+            java.append("        };\n    }\n");
+        }
+        java.append(holders)
+                .append("\n    private static final KnowledgeContent CONTENT = ").append(contentExpr).append(";\n\n")
+                .append("    @Override\n")
+                .append("    public KnowledgeContent get() {\n")
+                .append("        return CONTENT;\n")
+                .append("    }\n");
+        if (joins) {
+            java.append("\n    @SafeVarargs\n")
+                    .append("    private static <T> T[] join(T[]... parts) {\n")
+                    .append("        int length = 0;\n")
+                    .append("        for (T[] part : parts) length += part.length;\n")
+                    .append("        T[] all = java.util.Arrays.copyOf(parts[0], length);\n")
+                    .append("        int at = parts[0].length;\n")
+                    .append("        for (int i = 1; i < parts.length; i++) {\n")
+                    .append("            System.arraycopy(parts[i], 0, all, at, parts[i].length);\n")
+                    .append("            at += parts[i].length;\n")
+                    .append("        }\n")
+                    .append("        return all;\n")
+                    .append("    }\n");
+        }
+        return java.append("}\n").toString();
+    }
+
+    /**
+     * A non-empty list of records or strings becomes holder classes FIELD_0, FIELD_1... with an
+     * array V each, filled up to the code budget; the list renders as List.of(FIELD_0.V), or
+     * List.of(join(...)) over several holders.
+     */
+    private void hoist(String field, Class<?> element, List<?> list) {
+        if (list == null || list.isEmpty() || hoisted.containsKey(list)) return;
+        if (element != String.class && !element.isRecord()) return;
+
+        String type = element == String.class ? "String" : typeName(element);
+        List<String> parts = new ArrayList<>();
+        int budget = INITIALIZER;
+        int slot = 0;
+        for (int i = 0; i < list.size(); i++) {
+            Object item = list.get(i);
+            cost = ARRAY_SLOT;
+            String itemExpr = item instanceof Record r ? construct(r, INDENT) : expr(item, INDENT);
+            if (INITIALIZER + cost > CODE_BUDGET) {
+                throw new IllegalStateException(field.toLowerCase(Locale.ROOT) + "[" + i + "] needs about " + cost
+                        + " bytes of bytecode, over the " + CODE_BUDGET + " allowed per class; split that entry");
+            }
+            if (parts.isEmpty() || budget + cost > CODE_BUDGET) {
+                if (!parts.isEmpty()) holders.append("        };\n    }\n");
+                parts.add(field + "_" + parts.size());
+                holders.append("\n    private static final class ").append(parts.get(parts.size() - 1)).append(" {\n")
+                        .append("        static final ").append(type).append("[] V = {\n");
+                budget = INITIALIZER;
+                slot = 0;
+            }
+            holders.append(INDENT).append(itemExpr).append(",\n");
+            budget += cost;
+            // Strings are shared by value through the string table, records by their slot
+            if (item instanceof Record) hoisted.put(item, new Ref(parts.get(parts.size() - 1) + ".V[" + slot + "]", REF));
+            slot++;
+        }
+        holders.append("        };\n    }\n");
+
+        if (parts.size() == 1) {
+            hoisted.put(list, new Ref("List.of(" + parts.get(0) + ".V)", 2 * CALL));
+        } else {
+            joins = true;
+            List<String> arrays = new ArrayList<>();
+            for (String part : parts) arrays.add(part + ".V");
+            hoisted.put(list, new Ref("List.of(join(" + String.join(", ", arrays) + "))",
+                    ARRAY + parts.size() * (ARRAY_SLOT + CALL) + 2 * CALL));
+        }
+    }
+
+    private String expr(Object value, String indent) {
+        if (value == null) {
+            cost += 1;
+            return "null";
+        }
+        Ref ref = hoisted.get(value);
+        if (ref != null) {
+            cost += ref.cost();
+            return ref.expr();
+        }
+        if (value instanceof String s) {
+            Integer index = strings.get(s);
+            if (index == null) {
+                checkLiteral(s);
+                index = strings.size();
+                strings.put(s, index);
+            }
+            cost += REF;
+            return "S_" + index / STRINGS_PER_HOLDER + ".V[" + index % STRINGS_PER_HOLDER + "]";
+        }
+        if (value instanceof Integer || value instanceof Boolean) {
+            cost += BOXED;
+            return value.toString();
+        }
+        if (value instanceof Record record) return construct(record, indent);
+        if (value instanceof List<?> list) {
+            cost += CALL + (list.size() > 10 ? ARRAY + list.size() * ARRAY_SLOT : 0);
+            List<String> items = new ArrayList<>();
+            for (Object item : list) items.add(expr(item, indent));
+            return "List.of(" + String.join(", ", items) + ")";
+        }
+        if (value instanceof Map<?, ?> map) {
+            cost += CALL;
+            if (map.isEmpty()) return "Map.of()";
+            cost += ARRAY + map.size() * (ARRAY_SLOT + CALL);
+            // Sorted, so the same data always generates the same file
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put((String) k, v));
+            String inner = indent + "        ";
+            List<String> entries = new ArrayList<>();
+            sorted.forEach((k, v) -> entries.add(inner + "Map.entry(" + expr(k, inner) + ", " + expr(v, inner) + ")"));
+            return "Map.ofEntries(\n" + String.join(",\n", entries) + ")";
+        }
+        throw new IllegalArgumentException("No constant form for " + value.getClass().getName());
+    }
+
+    private String construct(Record record, String indent) {
+        cost += NEW;
+        // The top-level records get one argument per line
+        boolean multiline = record instanceof KnowledgeContent || record instanceof CompanyKnowledge;
+        String inner = multiline ? indent + "        " : indent;
+        List<String> args = new ArrayList<>();
+        for (RecordComponent c : record.getClass().getRecordComponents()) {
+            String arg = expr(value(c, record), inner);
+            args.add(multiline ? inner + arg : arg);
+        }
+        String joined = multiline ? "\n" + String.join(",\n", args) : String.join(", ", args);
+        return "new " + typeName(record.getClass()) + "(" + joined + ")";
+    }
+
+    // A class-file string constant holds at most 65535 bytes of modified UTF-8
+    private static void checkLiteral(String s) {
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            bytes += c != 0 && c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        if (bytes > MAX_LITERAL) {
+            throw new IllegalStateException("the text starting \"" + s.substring(0, 40) + "…\" is " + bytes
+                    + " bytes of modified UTF-8, over the " + MAX_LITERAL + " a string constant allows");
+        }
+    }
+
+    private static Object value(RecordComponent component, Record record) {
+        try {
+            return component.getAccessor().invoke(record);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(component.toString(), e);
+        }
+    }
+
+    private static String typeName(Class<?> type) {
+        return type.getName().substring(PACKAGE.length() + 1).replace('$', '.');
+    }
+
+    // mainExpertise -> MAIN_EXPERTISE
+    private static String constantName(String component) {
+        return component.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    static String literal(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20 || c == 0x7f) sb.append(String.format("\\%03o", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
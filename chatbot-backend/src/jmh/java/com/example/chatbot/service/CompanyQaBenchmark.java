@@ -0,0 +1,92 @@
+package com.example.chatbot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic Q&A paths over the bundled data.json. Each invocation takes the next question
+ * of the corpus so branch profiles stay realistic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyQaBenchmark {
+
+    private CompanyQaService qa;
+    private String[] normalizedHits;
+    private int next;
+
+    @Setup
+    public void setup() {
+        LanguageClassifier classifier = new LanguageClassifier(false);
+        GeminiService gemini = new GeminiService(new RestTemplate(), classifier, new ChatMetrics(new SimpleMeterRegistry()),
+                500, 1_800_000, 500, 3, 20, 5, 50, 30_000, 2, "");
+        qa = new CompanyQaService(gemini, classifier, 6, 350, false);
+        normalizedHits = new String[QuestionCorpus.ALIAS_HITS.length];
+        for (int i = 0; i < normalizedHits.length; i++) {
+            normalizedHits[i] = CompanyQaService.normalize(QuestionCorpus.ALIAS_HITS[i]);
+            if (qa.answer(QuestionCorpus.ALIAS_HITS[i], false) == null) {
+                throw new IllegalStateException("Not answered locally: " + QuestionCorpus.ALIAS_HITS[i]);
+            }
+        }
+    }
+
+    private String pick(String[] corpus) {
+        return corpus[next++ % corpus.length];
+    }
+
+    @Benchmark
+    public String answerAliasHit() {
+        String q = pick(QuestionCorpus.ALIAS_HITS);
+        return qa.answer(q, (next & 1) == 0);
+    }
+
+    @Benchmark
+    public String answerCascadeMiss() {
+        String q = pick(QuestionCorpus.MISSES);
+        return qa.answer(q, (next & 1) == 0);
+    }
+
+    @Benchmark
+    public String tryAliasMatch() {
+        String q = pick(normalizedHits);
+        KnowledgeSnapshot kb = qa.snapshot();
+        return qa.tryAliasMatch(kb, q, kb.matcher().scan(q), WordTokens.of(q), false);
+    }
+
+    @Benchmark
+    public String buildContext() {
+        return qa.buildContext(pick(QuestionCorpus.MESSAGES));
+    }
+
+    @Benchmark
+    public String normalize() {
+        return CompanyQaService.normalize(pick(QuestionCorpus.MESSAGES));
+    }
+
+    @Benchmark
+    public List<String> getSubjects() {
+        return qa.getSubjects();
+    }
+
+    @Benchmark
+    public List<String> suggestSubjects() {
+        return qa.suggestSubjects(pick(QuestionCorpus.PREFIXES), 8);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.chatbot.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Language detection and storage for the first message of a conversation, spread over a
+ * working set of conversation ids larger than one store segment.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversationSessionBenchmark {
+
+    private static final int CONVERSATIONS = 4096;
+
+    private ConversationSessionService sessions;
+    private String[] conversationIds;
+    private int next;
+
+    @Setup
+    public void setup() {
+        sessions = new ConversationSessionService(new LanguageClassifier(true), 10_000, 1_800_000);
+        conversationIds = new String[CONVERSATIONS];
+        for (int i = 0; i < CONVERSATIONS; i++) conversationIds[i] = "conv-" + i;
+    }
+
+    @Benchmark
+    public String detectAndStoreLanguage() {
+        int i = next++;
+        String message = QuestionCorpus.MESSAGES[i % QuestionCorpus.MESSAGES.length];
+        return sessions.detectAndStoreLanguage(conversationIds[i & (CONVERSATIONS - 1)], message);
+    }
+}
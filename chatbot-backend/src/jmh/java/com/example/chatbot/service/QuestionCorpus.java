@@ -0,0 +1,53 @@
+package com.example.chatbot.service;
+
+/**
+ * Bilingual questions as they arrive from the chat widget, grouped by the path they take.
+ */
+final class QuestionCorpus {
+
+    // Answered by the data.subjects alias fast path
+    static final String[] ALIAS_HITS = {
+            "What is your address?",
+            "Où êtes-vous situés ?",
+            "What services do you offer?",
+            "Quels services proposez-vous ?",
+            "Who is the CEO?",
+            "Qui dirige Gear9 ?",
+            "awards",
+            "clients",
+            "salesforce",
+            "marketing cloud",
+            "expertise",
+            "Tell me about Gear9"
+    };
+
+    // Off-topic: every branch of the cascade is tried before giving up
+    static final String[] MISSES = {
+            "the weather today in paris",
+            "Quel temps fera-t-il demain à Rabat ?",
+            "random long question about nothing in particular here",
+            "Pouvez-vous me recommander un bon restaurant près de la gare ?",
+            "how are you",
+            "xyz"
+    };
+
+    // Mixed first messages, as seen by the language detection
+    static final String[] MESSAGES = {
+            "Bonjour, quels sont vos projets dans le secteur bancaire ?",
+            "Hello, can you tell me about your Salesforce expertise?",
+            "Quelles récompenses avez-vous reçues depuis 2023 ?",
+            "Show me projects in finance",
+            "C'est quoi Gear9 ?",
+            "what does gear9 do in salesforce",
+            "Salesforce Tableau",
+            "merci beaucoup"
+    };
+
+    // Autocomplete keystrokes for /api/chat/subjects/suggest
+    static final String[] PREFIXES = {
+            "s", "sa", "sal", "Salesf", "cl", "ré", "REG", "pro", "dig", "marketing c", "bank", "x"
+    };
+
+    private QuestionCorpus() {
+    }
+}
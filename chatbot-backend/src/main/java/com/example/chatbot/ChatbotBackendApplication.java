@@ -2,12 +2,20 @@ package com.example.chatbot;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class ChatbotBackendApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ChatbotBackendApplication.class, args);
+		SpringApplication app = new SpringApplication(ChatbotBackendApplication.class);
+		// -Dchatbot.startup.report=true records every startup step for StartupReport and /actuator/startup
+		if (Boolean.getBoolean("chatbot.startup.report")) {
+			app.setApplicationStartup(new BufferingApplicationStartup(4096));
+		}
+		app.run(args);
 	}
 
 }
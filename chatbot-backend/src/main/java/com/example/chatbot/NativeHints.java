@@ -0,0 +1,49 @@
+package com.example.chatbot;
+
+import com.example.chatbot.dto.ChatBatchResult;
+import com.example.chatbot.dto.ChatRequest;
+import com.example.chatbot.dto.ChatResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reachability metadata for the native image (mvn -Pnative), on top of what Spring AOT infers:
+ * <ul>
+ *   <li>the knowledge base class generated by KnowledgeCodegen, instantiated by name, and the
+ *       classpath data.json and data.schema.json read by the opt-in chatbot.data.override path</li>
+ *   <li>the FR/EN lingua models, loaded as resources and decoded with kotlinx-serialization,
+ *       whose serializer lookup goes through the model class's companion by reflection</li>
+ *   <li>Jackson binding of the chat DTOs, including the Mono and List bodies AOT cannot see through</li>
+ * </ul>
+ * langdetect ships no resources of its own and is not called at runtime, so it needs nothing.
+ */
+class NativeHints implements RuntimeHintsRegistrar {
+
+    static final String DATA_JSON = "data.json";
+    static final String DATA_SCHEMA = "data.schema.json";
+    static final String GENERATED_KNOWLEDGE = "com.example.chatbot.service.GeneratedKnowledge";
+    static final String[] LINGUA_LANGUAGES = {"en", "fr"};
+
+    private static final String LINGUA_MODEL = "com.github.pemistahl.lingua.internal.JsonLanguageModel";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern(DATA_JSON);
+        hints.resources().registerPattern(DATA_SCHEMA);
+        hints.reflection().registerType(TypeReference.of(GENERATED_KNOWLEDGE), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        for (String language : LINGUA_LANGUAGES) {
+            hints.resources().registerPattern("language-models/" + language + "/*.json");
+        }
+
+        for (String type : new String[]{LINGUA_MODEL, LINGUA_MODEL + "$Companion", LINGUA_MODEL + "$$serializer"}) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ChatRequest.class, ChatResponse.class, ChatBatchResult.class);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.chatbot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Logs how long the pod took to become ready: JVM start to ready, whether the AOT-generated
+ * context and a CDS archive were used, and, with -Dchatbot.startup.report=true, the slowest
+ * startup steps (the full timeline is served at /actuator/startup).
+ */
+@Component
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+    private static final int SLOWEST_STEPS = 10;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        log.info("Ready in {} ms since JVM start ({} ms in SpringApplication.run), AOT {}, CDS archive {}",
+                uptimeMs, event.getTimeTaken() == null ? "?" : event.getTimeTaken().toMillis(),
+                Boolean.getBoolean("spring.aot.enabled") ? "on" : "off", cds ? "on" : "off");
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) return;
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> slowest = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_STEPS)
+                .toList();
+        StringBuilder report = new StringBuilder("Slowest startup steps:");
+        for (StartupTimeline.TimelineEvent e : slowest) {
+            report.append("\n  ").append(String.format("%6d ms  ", e.getDuration().toMillis()))
+                    .append(e.getStartupStep().getName());
+            for (var tag : e.getStartupStep().getTags()) {
+                if (tag.getKey().equals("beanName")) report.append(' ').append(tag.getValue());
+            }
+        }
+        log.info(report.toString());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.chatbot.dto;
+
+/**
+ * One item of a /api/chat/batch response: the reply plus the tier that produced it
+ * ("direct", "basic", "gemini", "fallback" when Gemini failed, or "timeout" when it had not
+ * answered by the batch deadline).
+ */
+public class ChatBatchResult extends ChatResponse {
+    private String tier;
+
+    public ChatBatchResult() {}
+
+    public ChatBatchResult(String reply, String tier) {
+        super(reply);
+        this.tier = tier;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+
+    public void setTier(String tier) {
+        this.tier = tier;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.chatbot.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deterministic replies compiled when the knowledge base loads.
+ * Keyed by (intent, language, qualifier, year bucket) so the request path only does a lookup.
+ * The qualifier is the sector for projects and the expertise group id for expertise details.
+ */
+final class AnswerTable {
+
+    enum Intent {
+        SERVICES, LEADERSHIP, AWARDS, PROJECTS, EXPERTISE_MAIN, EXPERTISE_GROUPS, EXPERTISE_DETAIL
+    }
+
+    static final int NO_YEAR = -1;
+
+    record Key(Intent intent, boolean english, String qualifier, int yearBucket) {
+    }
+
+    private final Map<Key, String> answers;
+    // Distinct award years, ascending; bucket i means "since a year in (years[i-1], years[i]]"
+    private final int[] awardYears;
+
+    private AnswerTable(Map<Key, String> answers, int[] awardYears) {
+        this.answers = answers;
+        this.awardYears = awardYears;
+    }
+
+    static Builder builder(int[] awardYears) {
+        return new Builder(awardYears);
+    }
+
+    String get(Intent intent, boolean english) {
+        return get(intent, english, null, NO_YEAR);
+    }
+
+    String get(Intent intent, boolean english, String qualifier) {
+        return get(intent, english, qualifier, NO_YEAR);
+    }
+
+    String get(Intent intent, boolean english, String qualifier, int yearBucket) {
+        return answers.get(new Key(intent, english, qualifier, yearBucket));
+    }
+
+    int[] awardYears() {
+        return awardYears;
+    }
+
+    /**
+     * Bucket of a "since year" filter: the number of distinct award years strictly before it.
+     */
+    int yearBucket(int fromYear) {
+        int i = Arrays.binarySearch(awardYears, fromYear);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Representative "since" year for a bucket, used when compiling the table.
+     */
+    static int bucketYear(int[] awardYears, int bucket) {
+        if (awardYears.length == 0) return 0;
+        return bucket < awardYears.length ? awardYears[bucket] : awardYears[awardYears.length - 1] + 1;
+    }
+
+    static final class Builder {
+        private final Map<Key, String> answers = new HashMap<>();
+        private final int[] awardYears;
+
+        private Builder(int[] awardYears) {
+            this.awardYears = awardYears;
+        }
+
+        Builder put(Intent intent, boolean english, String qualifier, int yearBucket, String reply) {
+            if (reply != null) answers.put(new Key(intent, english, qualifier, yearBucket), reply);
+            return this;
+        }
+
+        AnswerTable build() {
+            return new AnswerTable(Map.copyOf(answers), awardYears.clone());
+        }
+    }
+}
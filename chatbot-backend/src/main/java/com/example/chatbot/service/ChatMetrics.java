@@ -0,0 +1,102 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters of the answer pipeline (served at /actuator/metrics).
+ * <ul>
+ *   <li>chatbot.tier.latency{tier, outcome}: time spent in each tier, whether it answered or passed on</li>
+ *   <li>chatbot.requests{tier}: which tier served the request (direct, basic, gemini, fallback on error, or timeout for batch items past the deadline)</li>
+ *   <li>chatbot.gemini.responses{call, status}, chatbot.gemini.errors{call, type}, chatbot.gemini.quota{call}</li>
+ *   <li>chatbot.gemini.prompt.size{call}: prompt length in chars, with a percentile histogram</li>
+ *   <li>chatbot.gemini.tokens{call, type}: token usage reported in usageMetadata</li>
+ * </ul>
+ */
+@Component
+public class ChatMetrics {
+
+    public static final String TIER_DIRECT = "direct";
+    public static final String TIER_BASIC = "basic";
+    public static final String TIER_GEMINI = "gemini";
+    public static final String TIER_FALLBACK = "fallback";
+    public static final String TIER_TIMEOUT = "timeout";
+
+    private final MeterRegistry registry;
+
+    public ChatMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample startTier() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stops the tier timer; a tier that answered also counts as the one that served the request.
+     */
+    public void tierDone(Timer.Sample sample, String tier, boolean answered) {
+        tierTimed(sample, tier, answered);
+        if (answered) served(tier);
+    }
+
+    /**
+     * Stops the tier timer only, for callers that count the served tier once the answer
+     * is known to go into the response.
+     */
+    public void tierTimed(Timer.Sample sample, String tier, boolean answered) {
+        sample.stop(Timer.builder("chatbot.tier.latency")
+                .tag("tier", tier)
+                .tag("outcome", answered ? "answered" : "passed")
+                .register(registry));
+    }
+
+    public void served(String tier) {
+        registry.counter("chatbot.requests", "tier", tier).increment();
+    }
+
+    void geminiResponse(String call, int status) {
+        registry.counter("chatbot.gemini.responses", "call", call, "status", Integer.toString(status)).increment();
+    }
+
+    void geminiError(String call, String type) {
+        registry.counter("chatbot.gemini.errors", "call", call, "type", type).increment();
+    }
+
+    void quotaHit(String call) {
+        registry.counter("chatbot.gemini.quota", "call", call).increment();
+    }
+
+    void promptSize(String call, int chars) {
+        DistributionSummary.builder("chatbot.gemini.prompt.size")
+                .baseUnit("chars")
+                .tag("call", call)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(chars);
+    }
+
+    /**
+     * Adds the prompt, candidates and total token counts of a response's usageMetadata.
+     */
+    void tokens(String call, JsonNode usageMetadata) {
+        if (usageMetadata == null || !usageMetadata.isObject()) return;
+        addTokens(call, "prompt", usageMetadata.path("promptTokenCount"));
+        addTokens(call, "candidates", usageMetadata.path("candidatesTokenCount"));
+        addTokens(call, "total", usageMetadata.path("totalTokenCount"));
+    }
+
+    private void addTokens(String call, String type, JsonNode count) {
+        if (!count.canConvertToLong()) return;
+        Counter.builder("chatbot.gemini.tokens")
+                .baseUnit("tokens")
+                .tag("call", call)
+                .tag("type", type)
+                .register(registry)
+                .increment(count.asLong());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.chatbot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory inverted index over the knowledge-base chunks, scored with BM25.
+ * Terms are accent-folded and lightly stemmed; English query words are expanded to
+ * their French counterparts so EN questions retrieve the (mostly French) chunks.
+ */
+final class ChunkIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            // FR
+            "le", "la", "les", "un", "une", "des", "du", "de", "d", "l", "et", "ou", "a", "au", "aux", "en", "dans",
+            "pour", "par", "sur", "avec", "est", "sont", "que", "qui", "quoi", "quel", "quelle", "quels", "quelles",
+            "vous", "votre", "vos", "nous", "notre", "nos", "ce", "ces", "c", "se", "sa", "son", "ses", "il", "elle",
+            // EN
+            "the", "an", "and", "or", "of", "to", "in", "on", "for", "with", "is", "are", "what", "which", "who",
+            "do", "does", "you", "your", "we", "our", "it", "its", "me", "about", "tell", "how", "can", "gear");
+
+    // EN query term -> FR index terms (already folded and stemmed)
+    private static final Map<String, String[]> EN_TO_FR = Map.ofEntries(
+            Map.entry("project", new String[]{"projet"}),
+            Map.entry("customer", new String[]{"client"}),
+            Map.entry("award", new String[]{"recompense", "prix", "meilleur"}),
+            Map.entry("achievement", new String[]{"realisation", "recompense"}),
+            Map.entry("reward", new String[]{"recompense"}),
+            Map.entry("address", new String[]{"adresse"}),
+            Map.entry("where", new String[]{"adresse"}),
+            Map.entry("located", new String[]{"adresse"}),
+            Map.entry("location", new String[]{"adresse"}),
+            Map.entry("office", new String[]{"adresse"}),
+            Map.entry("ceo", new String[]{"pdg", "direction"}),
+            Map.entry("leader", new String[]{"pdg", "direction"}),
+            Map.entry("director", new String[]{"direction"}),
+            Map.entry("company", new String[]{"entreprise", "agence"}),
+            Map.entry("offer", new String[]{"service", "offre"}),
+            Map.entry("insurance", new String[]{"assurance"}),
+            Map.entry("industry", new String[]{"industrie"}),
+            Map.entry("hospitality", new String[]{"hotellerie"}),
+            Map.entry("telecommunication", new String[]{"telecom"}),
+            Map.entry("estate", new String[]{"immobilier"}),
+            Map.entry("data", new String[]{"donnee"}),
+            Map.entry("sale", new String[]{"vente"}),
+            Map.entry("integration", new String[]{"integration", "connectez"}));
+
+    /**
+     * A retrievable piece of context; {@code keywords} are indexed but never sent to the model.
+     */
+    record Chunk(String id, String text, String section, String keywords) {
+    }
+
+    record Scored(Chunk chunk, double score) {
+    }
+
+    private final List<Chunk> chunks;
+    private final Map<String, int[][]> postings; // term -> {docIds, termFreqs}
+    private final int[] docLengths;
+    private final double avgDocLength;
+
+    private ChunkIndex(List<Chunk> chunks, Map<String, int[][]> postings, int[] docLengths, double avgDocLength) {
+        this.chunks = chunks;
+        this.postings = postings;
+        this.docLengths = docLengths;
+        this.avgDocLength = avgDocLength;
+    }
+
+    static ChunkIndex build(List<Chunk> chunks) {
+        Map<String, List<int[]>> raw = new HashMap<>();
+        int[] lengths = new int[chunks.size()];
+        long total = 0;
+        for (int doc = 0; doc < chunks.size(); doc++) {
+            Chunk c = chunks.get(doc);
+            List<String> terms = terms(c.text() + " " + c.section().replace('_', ' ') + " " + c.keywords());
+            lengths[doc] = terms.size();
+            total += terms.size();
+            Map<String, Integer> tf = new HashMap<>();
+            for (String t : terms) tf.merge(t, 1, Integer::sum);
+            for (Map.Entry<String, Integer> e : tf.entrySet()) {
+                raw.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(new int[]{doc, e.getValue()});
+            }
+        }
+        Map<String, int[][]> postings = new HashMap<>();
+        raw.forEach((term, list) -> {
+            int[] docs = new int[list.size()];
+            int[] freqs = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                docs[i] = list.get(i)[0];
+                freqs[i] = list.get(i)[1];
+            }
+            postings.put(term, new int[][]{docs, freqs});
+        });
+        double avg = chunks.isEmpty() ? 0 : (double) total / chunks.size();
+        return new ChunkIndex(List.copyOf(chunks), postings, lengths, avg);
+    }
+
+    int size() {
+        return chunks.size();
+    }
+
+    Chunk byId(String id) {
+        for (Chunk c : chunks) {
+            if (c.id().equals(id)) return c;
+        }
+        return null;
+    }
+
+    /**
+     * Best-scoring chunks for the question, at most {@code topK}, whose texts fit in {@code maxChars}.
+     */
+    List<Scored> search(String question, int topK, int maxChars) {
+        List<Scored> result = new ArrayList<>();
+        if (chunks.isEmpty() || question == null) return result;
+
+        double[] scores = new double[chunks.size()];
+        int n = chunks.size();
+        for (String term : queryTerms(question)) {
+            int[][] p = postings.get(term);
+            if (p == null) continue;
+            int[] docs = p[0];
+            int[] freqs = p[1];
+            double idf = Math.log(1 + (n - docs.length + 0.5) / (docs.length + 0.5));
+            for (int i = 0; i < docs.length; i++) {
+                double tf = freqs[i];
+                double norm = tf + K1 * (1 - B + B * docLengths[docs[i]] / avgDocLength);
+                scores[docs[i]] += idf * tf * (K1 + 1) / norm;
+            }
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        int used = 0;
+        for (int doc : order) {
+            if (result.size() >= topK || scores[doc] <= 0) break;
+            Chunk c = chunks.get(doc);
+            if (used + c.text().length() + 1 > maxChars) continue;
+            used += c.text().length() + 1;
+            result.add(new Scored(c, scores[doc]));
+        }
+        return result;
+    }
+
+    private static Set<String> queryTerms(String question) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String t : terms(question)) {
+            terms.add(t);
+            String[] fr = EN_TO_FR.get(t);
+            if (fr != null) terms.addAll(Arrays.asList(fr));
+        }
+        return terms;
+    }
+
+    static List<String> terms(String text) {
+        String folded = CompanyQaService.normalize(text);
+        WordTokens tokens = WordTokens.of(folded);
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String w = tokens.word(i);
+            if (STOPWORDS.contains(w)) continue;
+            terms.add(stem(w));
+        }
+        return terms;
+    }
+
+    // Plural folding shared by FR and EN ("services" -> "service", "projets" -> "projet")
+    private static String stem(String w) {
+        if (w.length() > 3 && (w.endsWith("s") || w.endsWith("x")) && !w.endsWith("ss")) {
+            return w.substring(0, w.length() - 1);
+        }
+        return w;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.chatbot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Closed / open / half-open breaker for the Gemini upstream.
+ * Closed: calls flow and their outcomes fill a sliding window; the circuit opens when the
+ * failure rate over the window crosses the threshold, or at once on a quota/rate-limit error.
+ * Open: calls are refused until the open period ends. Half-open: a few trial calls decide
+ * between closing again and re-opening.
+ */
+final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final int MAX_TRANSITIONS = 20;
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    record Transition(State from, State to, Instant at, String reason) {
+    }
+
+    record Status(State state, String reason, Instant since, int windowCalls, int windowFailures,
+                  List<Transition> transitions) {
+    }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Ring of the last windowSize outcomes, true = failure
+    private final boolean[] window;
+    private int windowCount;
+    private int windowNext;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private String reason = "startup";
+    private boolean quotaOpen;
+    private Instant since = Instant.now();
+    private long openUntil;
+    private int trialsInFlight;
+    private int trialSuccesses;
+    // Bumped on every transition so late results of an earlier half-open round are ignored
+    private int generation;
+    private final Deque<Transition> transitions = new ArrayDeque<>();
+
+    CircuitBreaker(int windowSize, int minCalls, int failureRatePercent, long openMillis, int halfOpenCalls) {
+        this(windowSize, minCalls, failureRatePercent, openMillis, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minCalls, int failureRatePercent, long openMillis, int halfOpenCalls,
+                   LongSupplier clock) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.max(1, minCalls);
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openMillis * 1_000_000L;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+        this.window = new boolean[this.windowSize];
+    }
+
+    /**
+     * Permission for one upstream call, or null while the circuit is open.
+     */
+    Permit acquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (clock.getAsLong() - openUntil < 0) return null;
+                transition(State.HALF_OPEN, "open period elapsed");
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsInFlight >= halfOpenCalls - trialSuccesses) return null;
+                trialsInFlight++;
+                return new Permit(true, generation);
+            }
+            return new Permit(false, generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the circuit is open because Gemini reported quota or rate-limit exhaustion.
+     */
+    boolean openForQuota() {
+        lock.lock();
+        try {
+            return state != State.CLOSED && quotaOpen;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Status status() {
+        lock.lock();
+        try {
+            return new Status(state, reason, since, windowCount, windowFailures, List.copyOf(transitions));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean trial, int gen, boolean failure, boolean quota) {
+        lock.lock();
+        try {
+            if (gen != generation) return; // started before the last transition
+            if (trial) {
+                trialsInFlight--;
+                if (failure) {
+                    open(quota, quota ? "quota exhausted during trial" : "trial call failed");
+                } else if (++trialSuccesses >= halfOpenCalls) {
+                    transition(State.CLOSED, trialSuccesses + " trial calls succeeded");
+                }
+                return;
+            }
+
+            if (windowCount == windowSize && window[windowNext]) windowFailures--;
+            window[windowNext] = failure;
+            windowNext = (windowNext + 1) % windowSize;
+            if (windowCount < windowSize) windowCount++;
+            if (failure) windowFailures++;
+
+            if (quota) {
+                open(true, "quota or rate limit reported");
+            } else if (windowCount >= minCalls && windowFailures * 100 >= failureRatePercent * windowCount) {
+                open(false, "failure rate " + (windowFailures * 100 / windowCount) + "% over " + windowCount + " calls");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(boolean trial, int gen) {
+        lock.lock();
+        try {
+            if (trial && gen == generation) trialsInFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(boolean quota, String why) {
+        quotaOpen = quota;
+        openUntil = clock.getAsLong() + openNanos;
+        transition(State.OPEN, why);
+    }
+
+    private void transition(State to, String why) {
+        State from = state;
+        state = to;
+        reason = why;
+        since = Instant.now();
+        trialsInFlight = 0;
+        trialSuccesses = 0;
+        generation++;
+        if (to == State.CLOSED) {
+            quotaOpen = false;
+            windowCount = 0;
+            windowNext = 0;
+            windowFailures = 0;
+        }
+        transitions.addLast(new Transition(from, to, since, why));
+        if (transitions.size() > MAX_TRANSITIONS) transitions.removeFirst();
+        log.info("Gemini circuit {} -> {} ({})", from, to, why);
+    }
+
+    /**
+     * One admitted call. Report its outcome with {@link #success()} or {@link #failure(boolean)},
+     * then {@link #close()} it; closing without an outcome (e.g. the caller went away) just frees the slot.
+     */
+    final class Permit implements AutoCloseable {
+        private final boolean trial;
+        private final int gen;
+        private boolean done;
+
+        private Permit(boolean trial, int gen) {
+            this.trial = trial;
+            this.gen = gen;
+        }
+
+        void success() {
+            if (done) return;
+            done = true;
+            record(trial, gen, false, false);
+        }
+
+        void failure(boolean quota) {
+            if (done) return;
+            done = true;
+            record(trial, gen, true, quota);
+        }
+
+        @Override
+        public void close() {
+            if (done) return;
+            done = true;
+            release(trial, gen);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The "data" object of data.json bound once into immutable typed records, so answering a
+ * question never walks the JSON tree. Bilingual fields are resolved to a {@link Text} pair up
+ * front; projects are indexed by sector and awards sorted by year for "since" queries.
+ */
+record CompanyKnowledge(
+        String name,
+        String address,
+        String about,
+        String overview,
+        List<Service> services,
+        List<Leader> leadership,
+        List<Award> awards,
+        List<Project> projects,
+        Map<String, List<Project>> projectsBySector,
+        List<Expertise> mainExpertise,
+        List<ExpertiseGroup> expertiseGroups,
+        List<Subject> subjects) {
+
+    /**
+     * French text and its optional English variant ("nom" / "nom_en"); blank values are null.
+     */
+    record Text(String fr, String en) {
+        String get(boolean english) {
+            return english && en != null ? en : fr;
+        }
+    }
+
+    record Service(String id, Text name, Text description, String category) {
+    }
+
+    record Leader(String role, String name) {
+    }
+
+    /**
+     * An award; {@code year} is -1 when data.json gives none.
+     */
+    record Award(String title, int year, String place) {
+    }
+
+    record Project(String id, String name, Text type, Text description, String sector, String url) {
+    }
+
+    record Expertise(Text name, Text description) {
+    }
+
+    record ExpertiseGroup(String id, String name, List<Expertise> details) {
+    }
+
+    /**
+     * An entry of data.subjects: localized canned answers and the aliases that trigger it.
+     */
+    record Subject(String key, String answerFr, String answerEn, List<String> aliases) {
+        String answer(boolean english) {
+            return english ? answerEn : answerFr;
+        }
+    }
+
+    /**
+     * Projects whose sector contains the given (lower-case) sector key, in declaration order;
+     * all projects for null. Only keys passed to {@link #bind} are indexed.
+     */
+    List<Project> projectsIn(String sectorKey) {
+        if (sectorKey == null) return projects;
+        return projectsBySector.getOrDefault(sectorKey, List.of());
+    }
+
+    /**
+     * Awards of the given year or later, most recent first, plus undated ones: a prefix of
+     * {@link #awards}, located by binary search.
+     */
+    List<Award> awardsSince(int year) {
+        int lo = 0;
+        int hi = awards.size();
+        // Dated awards are sorted by descending year and come before undated ones (year -1)
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int y = awards.get(mid).year();
+            if (y >= year) lo = mid + 1;
+            else hi = mid;
+        }
+        int undated = awards.size();
+        while (undated > 0 && awards.get(undated - 1).year() == -1) undated--;
+        if (lo == undated) return awards;
+        if (undated == awards.size()) return awards.subList(0, lo);
+        List<Award> out = new ArrayList<>(awards.subList(0, lo));
+        out.addAll(awards.subList(undated, awards.size()));
+        return List.copyOf(out);
+    }
+
+    /**
+     * Binds root.data, or returns null when data.json has no "data" object.
+     * The sector keys are the lower-case values the projects index is built for.
+     */
+    static CompanyKnowledge bind(JsonNode root, Collection<String> sectorKeys) {
+        if (root == null) return null;
+        JsonNode data = root.path("data");
+        if (data.isMissingNode()) return null;
+
+        List<Service> services = new ArrayList<>();
+        for (JsonNode s : data.path("services")) {
+            services.add(new Service(text(s.path("id")), text(s, "nom"), text(s, "description"), text(s.path("categorie"))));
+        }
+
+        List<Leader> leadership = new ArrayList<>();
+        for (JsonNode d : data.path("direction")) {
+            leadership.add(new Leader(text(d.path("role")), text(d.path("nom"))));
+        }
+
+        List<Award> awards = new ArrayList<>();
+        for (JsonNode r : data.path("realisations_et_recompenses")) {
+            int year = r.path("annee").isMissingNode() ? -1 : r.path("annee").asInt();
+            awards.add(new Award(text(r.path("titre")), year, text(r.path("lieu"))));
+        }
+        // Stable: awards of the same year keep their declaration order; undated ones go last
+        awards.sort(Comparator.comparingInt((Award a) -> a.year() == -1 ? Integer.MIN_VALUE : a.year()).reversed());
+
+        List<Project> projects = new ArrayList<>();
+        for (JsonNode p : data.path("projets")) {
+            projects.add(new Project(text(p.path("id")), text(p.path("nom")), text(p, "type"), text(p, "description"),
+                    text(p.path("secteur")), text(p.path("url"))));
+        }
+        Map<String, List<Project>> bySector = new LinkedHashMap<>();
+        for (String key : sectorKeys) {
+            List<Project> matching = new ArrayList<>();
+            for (Project p : projects) {
+                if (p.sector() != null && p.sector().toLowerCase(Locale.ROOT).contains(key)) matching.add(p);
+            }
+            bySector.put(key, List.copyOf(matching));
+        }
+
+        List<Expertise> mainExpertise = new ArrayList<>();
+        for (JsonNode e : data.path("expertise_principale")) {
+            mainExpertise.add(new Expertise(text(e, "nom"), text(e, "description")));
+        }
+
+        List<ExpertiseGroup> groups = new ArrayList<>();
+        for (JsonNode g : data.path("expertise")) {
+            List<Expertise> details = new ArrayList<>();
+            for (JsonNode d : g.path("details")) {
+                details.add(new Expertise(text(d, "nom"), text(d, "description")));
+            }
+            groups.add(new ExpertiseGroup(text(g.path("id")), text(g.path("nom")), List.copyOf(details)));
+        }
+
+        List<Subject> subjects = new ArrayList<>();
+        JsonNode subjectsNode = data.path("subjects");
+        for (Iterator<Map.Entry<String, JsonNode>> it = subjectsNode.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> e = it.next();
+            List<String> aliases = new ArrayList<>();
+            for (JsonNode a : e.getValue().path("aliases")) {
+                String alias = text(a);
+                if (alias != null) aliases.add(alias);
+            }
+            subjects.add(new Subject(e.getKey(), text(e.getValue().path("answer_fr")), text(e.getValue().path("answer_en")),
+                    List.copyOf(aliases)));
+        }
+
+        return new CompanyKnowledge(text(data.path("nom_entreprise")), text(data.path("adresse")), text(data.path("apropos")),
+                text(data.path("apercu")), List.copyOf(services), List.copyOf(leadership), List.copyOf(awards),
+                List.copyOf(projects), Map.copyOf(bySector), List.copyOf(mainExpertise), List.copyOf(groups),
+                List.copyOf(subjects));
+    }
+
+    private static Text text(JsonNode parent, String field) {
+        return new Text(text(parent.path(field)), text(parent.path(field + "_en")));
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isMissingNode() || node.isNull()) return null;
+        String t = node.asText(null);
+        return (t == null || t.isBlank()) ? null : t;
+    }
+}
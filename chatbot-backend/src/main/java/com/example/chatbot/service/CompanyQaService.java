@@ -2,60 +2,256 @@ package com.example.chatbot.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 @Service
 public class CompanyQaService {
 
+    private static final Logger log = LoggerFactory.getLogger(CompanyQaService.class);
+
+    static final String DATA_FILE = "data.json";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private JsonNode root;
+    // Swapped as a whole on reload; readers take one reference per request
+    private volatile KnowledgeSnapshot snapshot;
+    private final ReentrantLock reloadLock = new ReentrantLock();
     private final GeminiService geminiService;
-
-    public CompanyQaService(GeminiService geminiService) {
+    private final LanguageClassifier languageClassifier;
+    private final int contextTopK;
+    private final int contextMaxTokens;
+    private final boolean dataOverride;
+
+    public CompanyQaService(GeminiService geminiService, LanguageClassifier languageClassifier,
+                            @Value("${chatbot.context.top-k:6}") int contextTopK,
+                            @Value("${chatbot.context.max-tokens:350}") int contextMaxTokens,
+                            @Value("${chatbot.data.override:false}") boolean dataOverride) {
         this.geminiService = geminiService;
-        this.root = loadDataJson();
+        this.languageClassifier = languageClassifier;
+        this.contextTopK = contextTopK;
+        this.contextMaxTokens = contextMaxTokens;
+        this.dataOverride = dataOverride;
+        this.snapshot = initialSnapshot();
     }
 
-    public String answer(String questionRaw) {
-        boolean isEnglish = detectEnglish(questionRaw);
-        return answer(questionRaw, isEnglish);
+    // The knowledge base compiled in by KnowledgeCodegen, unless the runtime file override is on
+    private KnowledgeSnapshot initialSnapshot() {
+        if (!dataOverride) {
+            KnowledgeContent generated = KnowledgeContent.generated();
+            if (generated != null) return buildSnapshot(generated);
+            log.warn("{} not compiled in (build without the Maven generate-sources step?), parsing classpath:{}",
+                    KnowledgeContent.GENERATED_CLASS, DATA_FILE);
+        }
+        LoadedData loaded = loadDataJson(false);
+        return buildSnapshot(content(loaded.root(), loaded.source()));
     }
 
-    // Improved language detection: returns true for English, false for French
-    private boolean detectEnglish(String question) {
-        if (question == null) return false;
-        String q = question.toLowerCase(Locale.ROOT);
+    /**
+     * Re-read data.json, validate it against data.schema.json and rebuild every derived
+     * structure, then publish the result with a single volatile write. On failure the current
+     * snapshot stays live. Only available with chatbot.data.override; otherwise the knowledge
+     * base is the one compiled in and changes with a rebuild.
+     *
+     * @return the snapshot now serving requests
+     * @throws IllegalStateException if the override is off or the file is missing, unreadable or invalid
+     */
+    public KnowledgeSnapshot reload() {
+        if (!dataOverride) {
+            throw new IllegalStateException("Knowledge base reload failed: the data.json override is off (chatbot.data.override=false)");
+        }
+        // A lock rather than synchronized: reload does file I/O and may run on a virtual thread
+        reloadLock.lock();
+        try {
+            LoadedData loaded = loadDataJson(true);
+            if (loaded.root() == null) {
+                throw new IllegalStateException("Knowledge base reload failed: " + loaded.source());
+            }
+            validate(loaded.root());
+            KnowledgeSnapshot next = buildSnapshot(content(loaded.root(), loaded.source()));
+            this.snapshot = next;
+            // Cached Gemini replies were grounded on the old facts
+            geminiService.clearReplyCaches();
+            log.info("Knowledge base reloaded from {} ({} subjects)", next.source(), next.subjects().size());
+            return next;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
 
-        // English and French keywords
-        String[] englishWords = {"what", "who", "where", "how", "company", "address", "service", "project", "client", "award", "expertise", "hello", "hi", "about", "overview", "leader", "director", "customer", "customers", "achievement", "achievements"};
-        String[] frenchWords = {"quoi", "qui", "où", "ou", "comment", "entreprise", "adresse", "service", "projet", "client", "récompense", "expertise", "bonjour", "salut", "présentation", "présentez", "dirige", "direction", "réalisation", "réalisations", "apropos", "à propos", "apercu"};
+    KnowledgeSnapshot snapshot() {
+        return snapshot;
+    }
 
-        int enCount = 0, frCount = 0;
-        for (String word : englishWords) if (q.contains(word)) enCount++;
-        for (String word : frenchWords) if (q.contains(word)) frCount++;
+    /**
+     * The data.json tree as the service would load it now (module root first when the override
+     * is on, then classpath), or null.
+     */
+    JsonNode readDataJson() {
+        return loadDataJson(false).root();
+    }
 
-        if (enCount == 0 && frCount == 0) {
-            // fallback: guess by first word
-            if (q.matches("^(le|la|les|un|une|des|est|être|vous|nous|bonjour|merci|salut).*")) return false;
-            if (q.matches("^(what|who|where|how|hello|hi|about).*")) return true;
-            // fallback: default to French
-            return false;
+    /**
+     * Module-root data.json, which takes precedence over the classpath copy when the override is on.
+     */
+    public Path dataFile() {
+        return new File(DATA_FILE).toPath().toAbsolutePath();
+    }
+
+    /**
+     * Whether the knowledge base comes from data.json at runtime (chatbot.data.override) and can be reloaded.
+     */
+    public boolean dataOverride() {
+        return dataOverride;
+    }
+
+    /**
+     * Binds a data.json tree into what a snapshot is built from. The JSON tree is only read
+     * here, at build time by KnowledgeCodegen or on a runtime override; requests work off
+     * the bound CompanyKnowledge.
+     */
+    static KnowledgeContent content(JsonNode root, String source) {
+        return new KnowledgeContent(CompanyKnowledge.bind(root, SECTOR_KEYS), List.copyOf(buildSubjects(root)),
+                List.copyOf(buildChunks(root)), source);
+    }
+
+    private KnowledgeSnapshot buildSnapshot(KnowledgeContent content) {
+        CompanyKnowledge company = content.company();
+        List<String> subjects = content.subjects();
+        return new KnowledgeSnapshot(company, buildMatcher(company), buildAnswerTable(company), ChunkIndex.build(content.chunks()),
+                subjects, SubjectTrie.build(subjects), subjectsETag(subjects), content.source(), Instant.now());
+    }
+
+    private static String subjectsETag(List<String> subjects) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String s : subjects) {
+                sha.update(s.getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) '\n');
+            }
+            return "\"" + HexFormat.of().formatHex(sha.digest(), 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    // The same schema KnowledgeCodegen enforces at build time
+    private void validate(JsonNode root) {
+        List<String> errors = KnowledgeSchema.classpath().validate(root);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Knowledge base reload failed: " + String.join("; ", errors));
         }
-        return enCount >= frCount;
+    }
+
+    public String answer(String questionRaw) {
+        boolean isEnglish = languageClassifier.isEnglish(questionRaw);
+        return answer(questionRaw, isEnglish);
+    }
+
+    /**
+     * Compile every intent keyword list and every alias of data.subjects into one matcher,
+     * so a question is scanned a single time whatever the number of keywords.
+     */
+    private KeywordMatcher buildMatcher(CompanyKnowledge company) {
+        KeywordMatcher.Builder b = KeywordMatcher.builder()
+                .add("say-hello", "dis bonjour", "say hello")
+                .add("company",
+                        // FR
+                        "gear9", "entreprise", "société", "societe", "adresse", "service",
+                        "projet", "client", "réalisation", "recompense", "récompense",
+                        "pdg", "dirige", "direction", "expertise", "salesforce", "marketing cloud",
+                        "mulesoft", "tableau", "data cloud", "apropos", "à propos", "apercu", "présentation",
+                        // "où" folds to "ou", which would match inside "vous", "bonjour" or "you"
+                        "qui êtes-vous", "qui etes vous", "où êtes", "où se trouve", "où est", "localisation",
+                        // EN
+                        "company", "address", "service", "services", "project", "projects", "client", "clients",
+                        "customer", "customers", "award", "awards", "achievement", "achievements", "ceo", "leader",
+                        "director", "about", "overview", "where", "location")
+                .add("greeting-en", "hello", "hi", "hey")
+                .add("greeting", "salut", "bonjour", "hey", "hello", "hi")
+                .add("address",
+                        // FR (long tokens)
+                        "adresse", "localisation", "située", "situee", "siège", "siege", "siège social",
+                        // EN
+                        "address", "location", "located", "headquarters", "hq", "office", "offices", "head office")
+                .add("company-name", "nom de l'entreprise", "nom de l'entr", "comment s'appelle", "comment s'appelle l'entr", "qui êtes-vous", "qui etes vous",
+                        "company name", "what is the company name", "what's the company name")
+                .add("about-gear9",
+                        // FR
+                        "c'est quoi gear9", "c est quoi gear9", "que fait gear9", "qui est gear9",
+                        // EN
+                        "tell me about gear9")
+                // Looser wording for the same answer, only used once no more specific intent matched
+                .add("overview", "à propos", "apropos", "aperçu", "présentation", "présentez", "overview")
+                .add("specific-topic",
+                        // Salesforce stack
+                        "salesforce", "sales cloud", "service cloud", "marketing cloud", "data cloud", "mulesoft", "tableau",
+                        // Other expertise groups / topics
+                        "digital", "product thinking", "customer experience", "automation", "régie", "regie", "staff augmentation")
+                .add("services", "service", "offre", "proposez", "proposés", "proposes",
+                        "services", "offer", "offers", "offering", "offerings", "what do you offer", "what services")
+                .add("leadership", "pdg", "direction", "dirige", "dirigeant", "ceo", "leader", "director")
+                .add("awards", "réalisation", "realisations", "récompense", "recompenses", "prix", "exploits",
+                        "award", "awards", "achievement", "achievements", "rewards")
+                .add("projects", "projet", "client", "référence", "references", "références",
+                        "project", "projects", "client", "clients", "customer", "customers", "reference", "portfolio")
+                .add("expertise-main", "expertise principale", "expertises principales", "compétence principale", "competence principale",
+                        "what is the expertise of gear9", "what is the expertise of", "what is your expertise",
+                        "expertise", "expertises", "core expertise", "main expertise", "primary expertise")
+                .add("expertise-salesforce", "salesforce", "sales cloud", "service cloud", "marketing cloud", "data cloud", "mulesoft", "tableau")
+                .add("expertise-regie", "régie", "regie", "staff augmentation")
+                .add("expertise-digital", "digital")
+                .add("expertise-any", "expertise", "expertises")
+                .add("name", "nom", "appelle", "appelez", "name")
+                .add("identity",
+                        "who are you", "who r u", "who're you", "who are u",
+                        "qui es-tu", "qui es tu", "qui êtes-vous", "qui etes vous", "tu es qui", "t'es qui")
+                .add("identity-who", "who")
+                .add("identity-you", "you")
+                .add("identity-are", " are ", " r ")
+                .add("intent-words",
+                        "adresse", "address", "service", "services", "projet", "projects", "client", "clients",
+                        "réalisation", "recompense", "exploits", "award", "achievements", "rewards", "expertise", "qui", "quoi", "comment",
+                        "où", "ou", "quelle", "quels", "quelles")
+                // buildContext sections
+                .add("ctx-services", "service", "offre", "offers", "offerings")
+                .add("ctx-leadership", "pdg", "direction", "ceo", "leader", "director")
+                .add("ctx-awards", "réalisation", "recompense", "récompense", "prix", "exploits", "award", "achievements", "rewards")
+                .add("ctx-projects", "projet", "client", "project", "clients", "portfolio", "reference");
+        for (String s : SECTEURS) {
+            b.add("secteur:" + s, s);
+        }
+
+        // Aliases from data.subjects, one group per subject key
+        if (company != null) {
+            for (CompanyKnowledge.Subject subject : company.subjects()) {
+                b.add("subject:" + subject.key());
+                for (String alias : subject.aliases()) {
+                    b.add("subject:" + subject.key(), normalize(alias));
+                }
+            }
+        }
+        return b.build();
     }
 
     public String answer(String questionRaw, boolean isEnglish) {
@@ -65,54 +261,48 @@ public class CompanyQaService {
                 : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
         }
 
+        final KnowledgeSnapshot kb = snapshot;
+        final CompanyKnowledge company = kb.company();
+        final AnswerTable answers = kb.answers();
         final String question = normalize(questionRaw);
+        // Single pass over the question; every branch below dispatches from these hits
+        final KeywordMatcher.Hits hits = kb.matcher().scan(question);
+        final WordTokens words = WordTokens.of(question);
 
         // Alias-based fast-path from data.subjects.aliases
-        String aliasAnswer = tryAliasMatch(question, isEnglish);
+        String aliasAnswer = tryAliasMatch(kb, question, hits, words, isEnglish);
         if (aliasAnswer != null) {
             return aliasAnswer;
         }
 
         // Identity: answer regardless of leading fillers (hey/ay/hi) or minor variations
-        if (isIdentityQuery(question)) {
+        if (isIdentityQuery(question, hits)) {
             return isEnglish
                     ? "I am Gear9's assistant, here to help you with any information you need about Gear9."
                     : "Je suis l'assistant de Gear9, là pour vous aider avec toutes les informations dont vous avez besoin sur Gear9.";
         }
 
         // Do not auto-greet; only greet if the user explicitly asks for a greeting
-        if (isLikelyGreetingOnly(question) && containsAny(question, "dis bonjour", "say hello")) {
+        if (isLikelyGreetingOnly(question, hits) && hits.any("say-hello")) {
             return isEnglish ? "Hello!" : "Bonjour !";
         }
 
-        if (root == null || root.path("data").isMissingNode()) {
+        if (company == null) {
             return isEnglish 
                 ? "I'm sorry, I don't have information on this topic."
                 : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
         }
 
-        JsonNode data = root.path("data");
-
         // Determine if the question is about the company context at all
-        boolean looksCompanyRelated = containsAny(question,
-                // FR
-                "gear9", "entreprise", "société", "societe", "adresse", "service",
-                "projet", "client", "réalisation", "recompense", "récompense",
-                "pdg", "dirige", "direction", "expertise", "salesforce", "marketing cloud",
-                "mulesoft", "tableau", "data cloud", "apropos", "à propos", "apercu", "présentation",
-                "qui êtes-vous", "qui etes vous", "où", "localisation",
-                // EN
-                "company", "address", "service", "services", "project", "projects", "client", "clients",
-                "customer", "customers", "award", "awards", "achievement", "achievements", "ceo", "leader",
-                "director", "about", "overview", "where", "location");
+        boolean looksCompanyRelated = hits.any("company");
 
         if (!looksCompanyRelated) {
             // If the user greets in EN, reply politely in EN
-            if (isEnglish && containsAny(question, "hello", "hi", "hey")) {
+            if (isEnglish && hits.any("greeting-en")) {
                 return "Hello! Ask me anything about Gear9 (address, services, projects, awards, expertise, etc.).";
             }
             // For short/neutral messages, provide a friendly nudge in the detected language
-            if (question.length() < 16 || containsAny(question, "salut", "bonjour", "hey", "hello", "hi")) {
+            if (question.length() < 16 || hits.any("greeting")) {
                 return isEnglish
                         ? "I can help with Gear9: address, services, expertises, projects, clients and awards. What would you like to know?"
                         : "Je peux vous renseigner sur Gear9 : adresse, services, expertises, projets, clients et distinctions. Que souhaitez-vous savoir ?";
@@ -125,15 +315,11 @@ public class CompanyQaService {
         // 1) Adresse / localisation
         // Use word-boundary matching for short tokens like "ou" to avoid matching inside English words (e.g., "about")
         boolean askAddress =
-                containsAny(question,
-                    // FR (long tokens)
-                    "adresse", "localisation", "située", "situee", "siège", "siege", "siège social",
-                    // EN
-                    "address", "location", "located", "headquarters", "hq", "office", "offices", "head office")
-                || containsAnyWord(question, "où", "ou", "where");
+                hits.any("address")
+                || words.containsAny("où", "ou", "where");
 
         if (askAddress) {
-            String adresse = textOrNull(data.path("adresse"));
+            String adresse = company.address();
             if (adresse != null) {
                 String header = isEnglish ? "Address of **Gear9**:\n" : "Adresse de **Gear9**:\n";
                 return header + adresse;
@@ -145,9 +331,8 @@ public class CompanyQaService {
         }
 
         // 2) Nom de l'entreprise
-        if (containsAny(question, "nom de l'entreprise", "nom de l'entr", "comment s'appelle", "comment s'appelle l'entr", "qui êtes-vous", "qui etes vous", "présentez", "presentation",
-                "company name", "what is the company name", "what's the company name")) {
-            String nom = textOrNull(data.path("nom_entreprise"));
+        if (hits.any("company-name")) {
+            String nom = company.name();
             if (nom != null) {
                 String header = isEnglish ? "Company name of **Gear9**:\n" : "Nom de **Gear9**:\n";
                 return header + nom;
@@ -155,219 +340,373 @@ public class CompanyQaService {
         }
 
         // 3) À propos / aperçu — FR: C'est quoi Gear9 ?; EN: Tell me about Gear9
-        if (containsAny(question,
-                // FR
-                "c'est quoi gear9", "c est quoi gear9", "que fait gear9", "qui est gear9",
-                // EN
-                "tell me about gear9")) {
+        if (hits.any("about-gear9")) {
 
             // If the query also mentions a specific topic (e.g., Salesforce),
             // defer the generic about answer so specific handlers can respond.
-            boolean mentionsSpecificTopic = containsAny(question,
-                    // Salesforce stack
-                    "salesforce", "sales cloud", "service cloud", "marketing cloud", "data cloud", "mulesoft", "tableau",
-                    // Other expertise groups / topics
-                    "digital", "product thinking", "customer experience", "automation", "régie", "regie", "staff augmentation");
+            boolean mentionsSpecificTopic = hits.any("specific-topic");
 
             if (!mentionsSpecificTopic) {
                 // Provide direct responses without any API calls
-                if (isEnglish) {
-                    return "**Gear9** is a Moroccan digital transformation agency founded in 2019. We specialize in implementing digital culture, creating unique and engaging digital experiences, and using technology and data to drive business growth. We operate with an agile and innovative methodology, focusing on areas such as Digital Culture and Transformation, Product Thinking, Customer Experience and Automation, as well as Behavioral Analysis.";
-                } else {
-                    return "**Gear9** est une agence marocaine de transformation digitale fondée en 2019. Elle se spécialise dans la mise en œuvre de la culture digitale, la création d'expériences digitales uniques et engageantes, et l'utilisation de la technologie et des données pour stimuler la croissance des entreprises. L'agence opère avec une méthodologie agile et innovante, se concentrant sur des domaines tels que la Culture et la Transformation Digitale, le Product Thinking, l'Expérience Client et l'Automatisation, ainsi que l'Analyse Comportementale.";
-                }
+                return aboutReply(isEnglish);
             }
             // else: continue to specific expertise/services handling below
         }
 
         // 4) Services / offres
-        if (containsAny(question, "service", "offre", "proposez", "proposés", "proposes",
-                "services", "offer", "offers", "offering", "offerings", "what do you offer", "what services")) {
-            JsonNode services = data.path("services");
-            if (services.isArray() && services.size() > 0) {
-                List<String> names = new ArrayList<>();
-                List<String> snippets = new ArrayList<>();
-                int count = 0;
-                for (JsonNode s : services) {
-                    String nom = textOrNullLang(s, "nom", isEnglish);
-                    String description = textOrNullLang(s, "description", isEnglish);
-                    if (nom != null) {
-                        names.add(nom);
-                        if (description != null) {
-                            snippets.add(nom + ": " + description);
-                        }
-                        count++;
-                        if (count >= 4) break;
+        if (hits.any("services")) {
+            return answers.get(AnswerTable.Intent.SERVICES, isEnglish);
+        }
+
+        // 5) Direction / PDG
+        if (hits.any("leadership")) {
+            return answers.get(AnswerTable.Intent.LEADERSHIP, isEnglish);
+        }
+
+        // 6) Réalisations et récompenses
+        if (hits.any("awards")) {
+            return awardsReply(answers, words.firstYear(), isEnglish);
+        }
+
+        // 7) Projets / clients (avec filtrage par secteur si mentionné)
+        if (hits.any("projects")) {
+            return answers.get(AnswerTable.Intent.PROJECTS, isEnglish, detectSecteur(hits));
+        }
+
+        // 8) Expertises principales ("What is the expertise of Gear9?")
+        if (hits.any("expertise-main")) {
+            return answers.get(AnswerTable.Intent.EXPERTISE_MAIN, isEnglish);
+        }
+
+        // 9) Détail d'une expertise (Salesforce, régie, digital, etc.)
+        // Select which expertise group
+        String groupId = null;
+        boolean mentionsSalesforce = hits.any("expertise-salesforce");
+        boolean mentionsRegie = hits.any("expertise-regie");
+        boolean mentionsDigital = hits.any("expertise-digital");
+        if (mentionsSalesforce) groupId = "salesforce";
+        else if (mentionsRegie) groupId = "regie";
+        else if (mentionsDigital) groupId = "digital";
+
+        // If no specific group mentioned but the user asked about expertise in general, summarize ALL groups
+        if (groupId == null && hits.any("expertise-any")) {
+            String summary = answers.get(AnswerTable.Intent.EXPERTISE_GROUPS, isEnglish);
+            if (summary != null) return summary;
+        }
+        if (groupId == null && hits.any("overview")) {
+            return aboutReply(isEnglish);
+        }
+        String detail = answers.get(AnswerTable.Intent.EXPERTISE_DETAIL, isEnglish, groupId);
+        if (detail != null) return detail;
+
+        // 10) Nom de l'entreprise fallback
+        if (hits.any("name")) {
+            String nom = company.name();
+            if (nom != null) {
+                String header = isEnglish ? "Company name of **Gear9**:\n" : "Nom de **Gear9**:\n";
+                return header + nom;
+            }
+        }
+
+        // Default: unknown within company scope
+        return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+    }
+
+    private static String aboutReply(boolean isEnglish) {
+        if (isEnglish) {
+            return "**Gear9** is a Moroccan digital transformation agency founded in 2019. We specialize in implementing digital culture, creating unique and engaging digital experiences, and using technology and data to drive business growth. We operate with an agile and innovative methodology, focusing on areas such as Digital Culture and Transformation, Product Thinking, Customer Experience and Automation, as well as Behavioral Analysis.";
+        }
+        return "**Gear9** est une agence marocaine de transformation digitale fondée en 2019. Elle se spécialise dans la mise en œuvre de la culture digitale, la création d'expériences digitales uniques et engageantes, et l'utilisation de la technologie et des données pour stimuler la croissance des entreprises. L'agence opère avec une méthodologie agile et innovante, se concentrant sur des domaines tels que la Culture et la Transformation Digitale, le Product Thinking, l'Expérience Client et l'Automatisation, ainsi que l'Analyse Comportementale.";
+    }
+
+    /**
+     * Precompute every deterministic reply that only depends on intent, language,
+     * sector/expertise group and "since year" bucket.
+     */
+    private AnswerTable buildAnswerTable(CompanyKnowledge company) {
+        CompanyKnowledge data = company == null ? EMPTY : company;
+
+        Set<Integer> yearSet = new java.util.TreeSet<>();
+        for (CompanyKnowledge.Award award : data.awards()) {
+            if (award.year() != -1) yearSet.add(award.year());
+        }
+        int[] years = yearSet.stream().mapToInt(Integer::intValue).toArray();
+
+        Set<String> sectors = new LinkedHashSet<>();
+        sectors.add(null);
+        sectors.addAll(SECTOR_KEYS);
+
+        AnswerTable.Builder table = AnswerTable.builder(years);
+        for (boolean isEnglish : new boolean[]{false, true}) {
+            table.put(AnswerTable.Intent.SERVICES, isEnglish, null, AnswerTable.NO_YEAR, composeServices(data, isEnglish));
+            table.put(AnswerTable.Intent.LEADERSHIP, isEnglish, null, AnswerTable.NO_YEAR, composeLeadership(data, isEnglish));
+            table.put(AnswerTable.Intent.AWARDS, isEnglish, null, AnswerTable.NO_YEAR, composeAwards(data, isEnglish, null));
+            for (int bucket = 0; bucket <= years.length; bucket++) {
+                table.put(AnswerTable.Intent.AWARDS, isEnglish, null, bucket,
+                        composeAwards(data, isEnglish, AnswerTable.bucketYear(years, bucket)));
+            }
+            for (String sector : sectors) {
+                table.put(AnswerTable.Intent.PROJECTS, isEnglish, sector, AnswerTable.NO_YEAR, composeProjects(data, isEnglish, sector));
+            }
+            table.put(AnswerTable.Intent.EXPERTISE_MAIN, isEnglish, null, AnswerTable.NO_YEAR, composeExpertiseMain(data, isEnglish));
+            table.put(AnswerTable.Intent.EXPERTISE_GROUPS, isEnglish, null, AnswerTable.NO_YEAR, composeExpertiseGroups(data, isEnglish));
+            for (String groupId : new String[]{null, "salesforce", "regie", "digital"}) {
+                table.put(AnswerTable.Intent.EXPERTISE_DETAIL, isEnglish, groupId, AnswerTable.NO_YEAR, composeExpertiseDetail(data, isEnglish, groupId));
+            }
+        }
+        return table.build();
+    }
+
+    private String awardsReply(AnswerTable answers, Integer fromYear, boolean isEnglish) {
+        String phrases = fromYear == null
+                ? answers.get(AnswerTable.Intent.AWARDS, isEnglish)
+                : answers.get(AnswerTable.Intent.AWARDS, isEnglish, null, answers.yearBucket(fromYear));
+        if (phrases == null) {
+            return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+        }
+        String lead;
+        if (fromYear != null) {
+            lead = isEnglish ? ("Awards and achievements since " + fromYear + " include ")
+                    : ("Depuis " + fromYear + ", parmi les distinctions, citons ");
+        } else {
+            lead = isEnglish ? "Recent awards and achievements include " : "Parmi les distinctions récentes, citons ";
+        }
+        return lead + phrases + ".";
+    }
+
+    private String composeServices(CompanyKnowledge data, boolean isEnglish) {
+        List<CompanyKnowledge.Service> services = data.services();
+        if (!services.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            List<String> snippets = new ArrayList<>();
+            int count = 0;
+            for (CompanyKnowledge.Service s : services) {
+                String nom = s.name().get(isEnglish);
+                String description = s.description().get(isEnglish);
+                if (nom != null) {
+                    names.add(nom);
+                    if (description != null) {
+                        snippets.add(nom + ": " + description);
                     }
+                    count++;
+                    if (count >= 4) break;
                 }
-                if (!names.isEmpty()) {
-                    String joined = joinWithAnd(names, isEnglish);
-                    String lead = isEnglish ? "Gear9 offers services such as " : "Gear9 propose des services tels que ";
-                    String sentence = lead + joined + ".";
-                    if (!snippets.isEmpty()) {
-                        String examplesLead = isEnglish ? " For example: " : " Par exemple : ";
-                        String examples = String.join(isEnglish ? "; " : "; ", snippets);
-                        sentence += examplesLead + examples + ".";
-                    }
-                    return ensureEnglish(sentence, isEnglish);
+            }
+            if (!names.isEmpty()) {
+                String joined = joinWithAnd(names, isEnglish);
+                String lead = isEnglish ? "Gear9 offers services such as " : "Gear9 propose des services tels que ";
+                String sentence = lead + joined + ".";
+                if (!snippets.isEmpty()) {
+                    String examplesLead = isEnglish ? " For example: " : " Par exemple : ";
+                    String examples = String.join(isEnglish ? "; " : "; ", snippets);
+                    sentence += examplesLead + examples + ".";
                 }
+                return ensureEnglish(sentence, isEnglish);
             }
-            return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
         }
+        return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+    }
 
-        // 5) Direction / PDG
-        if (containsAny(question, "pdg", "direction", "dirige", "dirigeant", "ceo", "leader", "director")) {
-            JsonNode direction = data.path("direction");
-            if (direction.isArray() && direction.size() > 0) {
-                JsonNode d = direction.get(0);
-                String role = textOrNull(d.path("role"));
-                String nom = textOrNull(d.path("nom"));
-                if (role != null || nom != null) {
-                    String out = isEnglish
-                            ? ("Gear9 is led by " + (role != null ? role + " " : "") + (nom != null ? nom : "") + ".")
-                            : ("Gear9 est dirigée par " + (role != null ? role + " " : "") + (nom != null ? nom : "") + ".");
-                    return ensureEnglish(out, isEnglish);
+    private String composeLeadership(CompanyKnowledge data, boolean isEnglish) {
+        List<CompanyKnowledge.Leader> direction = data.leadership();
+        if (!direction.isEmpty()) {
+            CompanyKnowledge.Leader d = direction.get(0);
+            String role = d.role();
+            String nom = d.name();
+            if (role != null || nom != null) {
+                String out = isEnglish
+                        ? ("Gear9 is led by " + (role != null ? role + " " : "") + (nom != null ? nom : "") + ".")
+                        : ("Gear9 est dirigée par " + (role != null ? role + " " : "") + (nom != null ? nom : "") + ".");
+                return ensureEnglish(out, isEnglish);
+            }
+        }
+        return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+    }
+
+    // Joined award phrases since the given year (all awards if null), most recent first, or null if none
+    private String composeAwards(CompanyKnowledge data, boolean isEnglish, Integer fromYear) {
+        List<CompanyKnowledge.Award> awards = fromYear == null ? data.awards() : data.awardsSince(fromYear);
+        if (!awards.isEmpty()) {
+            List<String> phrases = new ArrayList<>();
+            for (CompanyKnowledge.Award r : awards) {
+                List<String> parts = new ArrayList<>();
+                if (r.title() != null) parts.add(r.title());
+                if (r.year() != -1) parts.add(String.valueOf(r.year()));
+                if (r.place() != null) parts.add(r.place());
+                if (!parts.isEmpty()) {
+                    phrases.add(String.join(", ", parts));
                 }
             }
-            return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+            if (!phrases.isEmpty()) {
+                return joinWithAnd(phrases, isEnglish);
+            }
         }
+        return null;
+    }
 
-        // 6) Réalisations et récompenses
-        if (containsAny(question, "réalisation", "realisations", "récompense", "recompenses", "prix", "exploits",
-                "award", "awards", "achievement", "achievements", "rewards")) {
-            JsonNode rr = data.path("realisations_et_recompenses");
-            if (rr.isArray() && rr.size() > 0) {
-                Integer fromYear = extractYear(question);
-                List<String> phrases = new ArrayList<>();
-                for (JsonNode r : rr) {
-                    int year = r.path("annee").isMissingNode() ? -1 : r.path("annee").asInt();
-                    if (fromYear != null && year != -1 && year < fromYear) {
-                        continue; // skip items before the requested year
+    private String composeProjects(CompanyKnowledge data, boolean isEnglish, String secteurFilter) {
+        if (!data.projects().isEmpty()) {
+            List<String> items = new ArrayList<>();
+            for (CompanyKnowledge.Project p : data.projectsIn(secteurFilter)) {
+                String nom = p.name();
+                String type = p.type().get(isEnglish);
+                String desc = p.description().get(isEnglish);
+
+                // Robust English fallback for well-known projects to ensure parity
+                if (isEnglish) {
+                    String pid = p.id();
+                    if (pid != null) {
+                        switch (pid) {
+                            case "groupe_ocp":
+                                if (type == null) type = "Salesforce";
+                                break;
+                            case "sorec":
+                                if (type == null) type = "Digital asset redesign strategy";
+                                break;
+                            case "bank_of_africa":
+                                if (type == null) type = "Digital Customer Experience";
+                                if (desc == null) desc = "Redefinition of the group's digital customer journey";
+                                break;
+                            case "bank_alyousr":
+                                if (type == null) type = "Marketing Automation";
+                                if (desc == null) desc = "Addressing this major challenge, Bank Al Yousr…";
+                                break;
+                            case "attijariwafa_bank":
+                                if (type == null) type = "Digitalization of the FIAD platform";
+                                break;
+                            case "bmce_capital_bourse":
+                                if (type == null) type = "Stock market activity management platform";
+                                break;
+                            default:
+                                break;
+                        }
                     }
-                    List<String> parts = new ArrayList<>();
-                    String titre = textOrNull(r.path("titre"));
-                    if (titre != null) parts.add(titre);
-                    if (year != -1) parts.add(String.valueOf(year));
-                    String lieu = textOrNull(r.path("lieu"));
-                    if (lieu != null) parts.add(lieu);
-                    if (!parts.isEmpty()) {
-                        phrases.add(String.join(", ", parts));
+                }
+                // Ensure English queries include some project detail even if *_en fields are missing
+                if (isEnglish && type == null && desc == null) {
+                    String secteurName = p.sector();
+                    if (secteurName != null) {
+                        type = secteurName;
+                    }
+                    if (desc == null) {
+                        String url = p.url();
+                        if (url != null) desc = url;
                     }
                 }
-                if (!phrases.isEmpty()) {
-                    String lead;
-                    if (fromYear != null) {
-                        lead = isEnglish ? ("Awards and achievements since " + fromYear + " include ")
-                                : ("Depuis " + fromYear + ", parmi les distinctions, citons ");
+
+                List<String> parts = new ArrayList<>();
+                if (nom != null) parts.add(nom);
+                if (type != null) parts.add(type);
+                if (desc != null) parts.add(desc);
+                // As a last resort, if only the name is present, add sector to provide detail
+                if (isEnglish && parts.size() == 1) {
+                    String secteurName = p.sector();
+                    if (secteurName != null) {
+                        parts.add(secteurName);
                     } else {
-                        lead = isEnglish ? "Recent awards and achievements include " : "Parmi les distinctions récentes, citons ";
+                        parts.add("Project");
                     }
-                    return ensureEnglish(lead + joinWithAnd(phrases, isEnglish) + ".", isEnglish);
+                }
+                // Ensure at least two fields for English readability
+                if (isEnglish && parts.size() == 1) {
+                    parts.add("Project details unavailable");
+                }
+                if (!parts.isEmpty()) {
+                    String separator = isEnglish ? " - " : " — ";
+                    String line = "- " + String.join(separator, parts);
+                    items.add(line);
                 }
             }
-            return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+            if (!items.isEmpty()) {
+                if (items.size() > 4) items = items.subList(0, 4);
+                String lead = isEnglish ? "Some client projects include " : "Parmi nos projets clients, citons ";
+                String sentence = lead + joinWithAnd(stripBullets(items), isEnglish) + ".";
+                return ensureEnglish(sentence, isEnglish);
+            }
         }
+        return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+    }
 
-        // 7) Projets / clients (avec filtrage par secteur si mentionné)
-        if (containsAny(question, "projet", "client", "référence", "references", "références",
-                "project", "projects", "client", "clients", "customer", "customers", "reference", "portfolio")) {
-            JsonNode projets = data.path("projets");
-            if (projets.isArray() && projets.size() > 0) {
-                String secteurFilter = detectSecteur(question);
-                List<String> items = new ArrayList<>();
-                for (JsonNode p : projets) {
-                    String secteur = textOrNull(p.path("secteur"));
-                    if (secteurFilter == null || (secteur != null && secteur.toLowerCase(Locale.ROOT).contains(secteurFilter))) {
-                        String nom = textOrNull(p.path("nom"));
-                        String type = textOrNullLang(p, "type", isEnglish);
-                        String desc = textOrNullLang(p, "description", isEnglish);
-
-                        // Robust English fallback for well-known projects to ensure parity
-                        if (isEnglish) {
-                            String pid = textOrNull(p.path("id"));
-                            if (pid != null) {
-                                switch (pid) {
-                                    case "groupe_ocp":
-                                        if (type == null) type = "Salesforce";
-                                        break;
-                                    case "sorec":
-                                        if (type == null) type = "Digital asset redesign strategy";
-                                        break;
-                                    case "bank_of_africa":
-                                        if (type == null) type = "Digital Customer Experience";
-                                        if (desc == null) desc = "Redefinition of the group's digital customer journey";
-                                        break;
-                                    case "bank_alyousr":
-                                        if (type == null) type = "Marketing Automation";
-                                        if (desc == null) desc = "Addressing this major challenge, Bank Al Yousr…";
-                                        break;
-                                    case "attijariwafa_bank":
-                                        if (type == null) type = "Digitalization of the FIAD platform";
-                                        break;
-                                    case "bmce_capital_bourse":
-                                        if (type == null) type = "Stock market activity management platform";
-                                        break;
-                                    default:
-                                        break;
-                                }
-                            }
-                        }
-                        // Ensure English queries include some project detail even if *_en fields are missing
-                        if (isEnglish && type == null && desc == null) {
-                            String secteurName = textOrNull(p.path("secteur"));
-                            if (secteurName != null) {
-                                type = secteurName;
-                            }
-                            if (desc == null) {
-                                String url = textOrNull(p.path("url"));
-                                if (url != null) desc = url;
-                            }
-                        }
-
-                        List<String> parts = new ArrayList<>();
-                        if (nom != null) parts.add(nom);
-                        if (type != null) parts.add(type);
-                        if (desc != null) parts.add(desc);
-                        // As a last resort, if only the name is present, add sector to provide detail
-                        if (isEnglish && parts.size() == 1) {
-                            String secteurName = textOrNull(p.path("secteur"));
-                            if (secteurName != null) {
-                                parts.add(secteurName);
-                            } else {
-                                parts.add("Project");
-                            }
-                        }
-                        // Ensure at least two fields for English readability
-                        if (isEnglish && parts.size() == 1) {
-                            parts.add("Project details unavailable");
-                        }
-                        if (!parts.isEmpty()) {
-                            String separator = isEnglish ? " - " : " — ";
-                            String line = "- " + String.join(separator, parts);
-                            items.add(line);
-                        }
-                    }
+    private String composeExpertiseMain(CompanyKnowledge data, boolean isEnglish) {
+        List<CompanyKnowledge.Expertise> ex = data.mainExpertise();
+        if (!ex.isEmpty()) {
+            List<String> items = new ArrayList<>();
+            for (CompanyKnowledge.Expertise e : ex) {
+                String nom = e.name().get(isEnglish);
+                String description = e.description().get(isEnglish);
+                if (nom != null && description != null) {
+                    items.add("- **" + nom + "**: " + description);
+                } else if (nom != null) {
+                    items.add("- **" + nom + "**");
                 }
-                if (!items.isEmpty()) {
-                    if (items.size() > 4) items = items.subList(0, 4);
-                    String lead = isEnglish ? "Some client projects include " : "Parmi nos projets clients, citons ";
-                    String sentence = lead + joinWithAnd(stripBullets(items), isEnglish) + ".";
-                    return ensureEnglish(sentence, isEnglish);
+            }
+            if (!items.isEmpty()) {
+                List<String> phrases = new ArrayList<>();
+                for (String it : items) {
+                    String cleaned = it.replaceFirst("^- \\*\\*(.*?)\\*\\*: ", "$1: ");
+                    phrases.add(cleaned);
                 }
+                String lead = isEnglish ? "Our main expertises include " : "Nos expertises principales incluent ";
+                return ensureEnglish(lead + joinWithAnd(phrases, isEnglish) + ".", isEnglish);
             }
-            return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
         }
+        return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+    }
 
-        // 8) Expertises principales ("What is the expertise of Gear9?")
-        if (containsAny(question, "expertise principale", "expertises principales", "compétence principale", "competence principale",
-                "what is the expertise of gear9", "what is the expertise of", "what is your expertise",
-                "expertise", "expertises", "core expertise", "main expertise", "primary expertise")) {
-            JsonNode ex = data.path("expertise_principale");
-            if (ex.isArray() && ex.size() > 0) {
+    private String composeExpertiseGroups(CompanyKnowledge data, boolean isEnglish) {
+        List<String> groupSummaries = new ArrayList<>();
+        for (CompanyKnowledge.ExpertiseGroup g : data.expertiseGroups()) {
+            String gid = g.id();
+            String gname = g.name();
+            if (g.details().isEmpty()) continue;
+            List<String> names = new ArrayList<>();
+            int added = 0;
+            for (CompanyKnowledge.Expertise d : g.details()) {
+                String nom = d.name().fr();
+                if (nom != null) {
+                    names.add(nom);
+                    added++;
+                    if (added >= 5) break;
+                }
+            }
+            if (!names.isEmpty()) {
+                String label;
+                if ("salesforce".equalsIgnoreCase(gid)) label = isEnglish ? "Salesforce" : "Salesforce";
+                else if ("regie".equalsIgnoreCase(gid)) label = isEnglish ? "staff augmentation" : "régie";
+                else if ("digital".equalsIgnoreCase(gid)) label = isEnglish ? "digital" : "digital";
+                else label = (gname != null ? gname : (isEnglish ? "expertise" : "expertise"));
+                String sentence = (isEnglish
+                        ? (label + ": " + joinWithAnd(names, true))
+                        : (label + " : " + joinWithAnd(names, false))
+                );
+                groupSummaries.add(sentence);
+            }
+        }
+        if (!groupSummaries.isEmpty()) {
+            String lead = isEnglish ? "Our expertises cover " : "Nos expertises couvrent ";
+            return lead + joinWithAnd(groupSummaries, isEnglish) + ".";
+        }
+        return null;
+    }
+
+    private String composeExpertiseDetail(CompanyKnowledge data, boolean isEnglish, String groupId) {
+        List<CompanyKnowledge.ExpertiseGroup> expertise = data.expertiseGroups();
+        CompanyKnowledge.ExpertiseGroup group = null;
+        if (groupId != null) {
+            for (CompanyKnowledge.ExpertiseGroup g : expertise) {
+                if (groupId.equals(g.id())) { group = g; break; }
+            }
+        }
+        if (group == null && !expertise.isEmpty()) {
+            group = expertise.get(0);
+        }
+        if (group != null) {
+            List<CompanyKnowledge.Expertise> details = group.details();
+            if (!details.isEmpty()) {
                 List<String> items = new ArrayList<>();
-                for (JsonNode e : ex) {
-                    String nom = textOrNullLang(e, "nom", isEnglish);
-                    String description = textOrNullLang(e, "description", isEnglish);
+                for (CompanyKnowledge.Expertise d : details) {
+                    String nom = d.name().get(isEnglish);
+                    String description = d.description().get(isEnglish);
                     if (nom != null && description != null) {
                         items.add("- **" + nom + "**: " + description);
                     } else if (nom != null) {
@@ -380,322 +719,210 @@ public class CompanyQaService {
                         String cleaned = it.replaceFirst("^- \\*\\*(.*?)\\*\\*: ", "$1: ");
                         phrases.add(cleaned);
                     }
-                    String lead = isEnglish ? "Our main expertises include " : "Nos expertises principales incluent ";
+                    String label = "cette expertise";
+                    if ("salesforce".equals(groupId)) label = isEnglish ? "Salesforce" : "Salesforce";
+                    else if ("regie".equals(groupId)) label = isEnglish ? "staff augmentation" : "régie";
+                    else if ("digital".equals(groupId)) label = isEnglish ? "digital" : "digital";
+                    String lead = isEnglish ? ("Details of our " + label + " expertise include ") : ("Parmi les détails de notre expertise " + label + ", on retrouve ");
                     return ensureEnglish(lead + joinWithAnd(phrases, isEnglish) + ".", isEnglish);
                 }
             }
-            return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
         }
-
-        // 9) Détail d'une expertise (Salesforce, régie, digital, etc.)
-        JsonNode expertise = data.path("expertise");
-        if (expertise.isArray()) {
-            // Select which expertise group
-            String groupId = null;
-            boolean mentionsSalesforce = containsAny(question, "salesforce", "sales cloud", "service cloud", "marketing cloud", "data cloud", "mulesoft", "tableau");
-            boolean mentionsRegie = containsAny(question, "régie", "regie", "staff augmentation");
-            boolean mentionsDigital = containsAny(question, "digital");
-            if (mentionsSalesforce) groupId = "salesforce";
-            else if (mentionsRegie) groupId = "regie";
-            else if (mentionsDigital) groupId = "digital";
-
-            // If no specific group mentioned but the user asked about expertise in general, summarize ALL groups
-            if (groupId == null && containsAny(question, "expertise", "expertises")) {
-                List<String> groupSummaries = new ArrayList<>();
-                for (JsonNode g : expertise) {
-                    String gid = textOrNull(g.path("id"));
-                    String gname = textOrNull(g.path("nom"));
-                    JsonNode details = g.path("details");
-                    if (!details.isArray() || details.size() == 0) continue;
-                    List<String> names = new ArrayList<>();
-                    int added = 0;
-                    for (JsonNode d : details) {
-                        String nom = textOrNull(d.path("nom"));
-                        if (nom != null) {
-                            names.add(nom);
-                            added++;
-                            if (added >= 5) break;
-                        }
-                    }
-                    if (!names.isEmpty()) {
-                        String label;
-                        if ("salesforce".equalsIgnoreCase(gid)) label = isEnglish ? "Salesforce" : "Salesforce";
-                        else if ("regie".equalsIgnoreCase(gid)) label = isEnglish ? "staff augmentation" : "régie";
-                        else if ("digital".equalsIgnoreCase(gid)) label = isEnglish ? "digital" : "digital";
-                        else label = (gname != null ? gname : (isEnglish ? "expertise" : "expertise"));
-                        String sentence = (isEnglish
-                                ? (label + ": " + joinWithAnd(names, true))
-                                : (label + " : " + joinWithAnd(names, false))
-                        );
-                        groupSummaries.add(sentence);
-                    }
-                }
-                if (!groupSummaries.isEmpty()) {
-                    String lead = isEnglish ? "Our expertises cover " : "Nos expertises couvrent ";
-                    return lead + joinWithAnd(groupSummaries, isEnglish) + ".";
-                }
-            }
-
-            JsonNode group = null;
-            if (groupId != null) {
-                for (JsonNode g : expertise) {
-                    if (groupId.equals(textOrNull(g.path("id")))) { group = g; break; }
-                }
-            }
-            if (group == null && expertise.size() > 0) {
-                group = expertise.get(0);
-            }
-            if (group != null) {
-                JsonNode details = group.path("details");
-                if (details.isArray() && details.size() > 0) {
-                    List<String> items = new ArrayList<>();
-                    for (JsonNode d : details) {
-                        String nom = textOrNullLang(d, "nom", isEnglish);
-                        String description = textOrNullLang(d, "description", isEnglish);
-                        if (nom != null && description != null) {
-                            items.add("- **" + nom + "**: " + description);
-                        } else if (nom != null) {
-                            items.add("- **" + nom + "**");
-                        }
-                    }
-                    if (!items.isEmpty()) {
-                        List<String> phrases = new ArrayList<>();
-                        for (String it : items) {
-                            String cleaned = it.replaceFirst("^- \\*\\*(.*?)\\*\\*: ", "$1: ");
-                            phrases.add(cleaned);
-                        }
-                        String label = "cette expertise";
-                        if ("salesforce".equals(groupId)) label = isEnglish ? "Salesforce" : "Salesforce";
-                        else if ("regie".equals(groupId)) label = isEnglish ? "staff augmentation" : "régie";
-                        else if ("digital".equals(groupId)) label = isEnglish ? "digital" : "digital";
-                        String lead = isEnglish ? ("Details of our " + label + " expertise include ") : ("Parmi les détails de notre expertise " + label + ", on retrouve ");
-                        return ensureEnglish(lead + joinWithAnd(phrases, isEnglish) + ".", isEnglish);
-                    }
-                }
-            }
-        }
-
-        // 10) Nom de l'entreprise fallback
-        if (containsAny(question, "nom", "appelle", "appelez", "name")) {
-            String nom = textOrNull(data.path("nom_entreprise"));
-            if (nom != null) {
-                String header = isEnglish ? "Company name of **Gear9**:\n" : "Nom de **Gear9**:\n";
-                return header + nom;
-            }
-        }
-
-        // Default: unknown within company scope
-        return isEnglish ? "I'm sorry, I don't have information on this." : "Je suis désolé, je ne trouve pas d'information à ce sujet.";
+        return null;
     }
 
-    private String tryAliasMatch(String normalizedQuestion, boolean isEnglish) {
-        if (root == null) return null;
-        JsonNode subjects = root.path("data").path("subjects");
-        if (subjects.isMissingNode()) return null;
+    String tryAliasMatch(KnowledgeSnapshot kb, String normalizedQuestion, KeywordMatcher.Hits hits, WordTokens words, boolean isEnglish) {
+        CompanyKnowledge company = kb.company();
+        AnswerTable answers = kb.answers();
+        if (company == null || company.subjects().isEmpty()) return null;
 
         // Default description fallback if matching generic subjects
-        String defaultFr = textOrNull(root.path("data").path("apercu"));
+        String defaultFr = company.overview();
         String defaultEn = null;
         if (defaultFr != null) {
             defaultEn = "Gear9 is a Moroccan digital transformation agency founded in 2019. We specialize in implementing digital culture, creating unique and engaging digital experiences, and using technology and data to drive business growth. We operate with an agile and innovative methodology, focusing on areas such as Digital Culture and Transformation, Product Thinking, Customer Experience and Automation, as well as Behavioral Analysis.";
         }
 
-        // Iterate keys
-        subjects.fieldNames().forEachRemaining(key -> {}); // touch iterator for compatibility
-        for (java.util.Iterator<String> it = subjects.fieldNames(); it.hasNext();) {
-            String key = it.next();
-            JsonNode node = subjects.path(key);
-            JsonNode aliases = node.path("aliases");
-            if (aliases.isArray()) {
-                for (JsonNode a : aliases) {
-                    String alias = normalize(textOrNull(a));
-                    if (alias != null && !alias.isEmpty() && normalizedQuestion.contains(alias)) {
-                        // 0) If the subject provides a custom localized answer, prefer it.
-                        // If the question looks English, serve EN even if current convo language is FR.
-                        boolean looksEnglish = detectEnglish(normalizedQuestion);
-                        String localized = textOrNull(node.path((isEnglish || looksEnglish) ? "answer_en" : "answer_fr"));
-                        if (localized != null && !localized.isBlank()) {
-                            return localized;
-                        }
-                        // 1) Map some keys to known answers using existing logic
-                        switch (key) {
-                            case "about": {
-                                // If a specific topic is present (e.g., Salesforce, Digital, Régie),
-                                // do not short-circuit to the generic description.
-                                boolean hasSpecific = normalizedQuestion.contains("salesforce")
-                                        || normalizedQuestion.contains("sales cloud")
-                                        || normalizedQuestion.contains("service cloud")
-                                        || normalizedQuestion.contains("marketing cloud")
-                                        || normalizedQuestion.contains("data cloud")
-                                        || normalizedQuestion.contains("mulesoft")
-                                        || normalizedQuestion.contains("tableau")
-                                        || normalizedQuestion.contains("digital")
-                                        || normalizedQuestion.contains("product thinking")
-                                        || normalizedQuestion.contains("customer experience")
-                                        || normalizedQuestion.contains("automation")
-                                        || normalizedQuestion.contains("régie")
-                                        || normalizedQuestion.contains("regie")
-                                        || normalizedQuestion.contains("staff augmentation");
-                                if (!hasSpecific) {
-                                    return isEnglish ? defaultEn : defaultFr;
-                                }
-                                // Let more specific alias handlers decide
-                                break;
-                            }
-                            case "address":
-                                return (isEnglish ? "Address of **Gear9**:\n" : "Adresse de **Gear9**:\n") + textOrNull(root.path("data").path("adresse"));
-                            case "services":
-                                return answer("services", isEnglish); // fall back to existing branch via keyword
-                            case "clients":
-                                return answer("clients", isEnglish);
-                            case "awards":
-                                return answer("awards", isEnglish);
-                            case "leadership":
-                                return answer("ceo", isEnglish);
-                            case "expertise":
-                                return answer("expertise", isEnglish);
-                            case "salesforce":
-                                return answer("salesforce expertise", isEnglish);
-                            case "digital":
-                                return answer("digital expertise", isEnglish);
-                            default:
-                                return isEnglish ? defaultEn : defaultFr;
+        // Subjects in declaration order; their aliases were matched in the single scan
+        for (CompanyKnowledge.Subject subject : company.subjects()) {
+            String key = subject.key();
+            if (hits.any("subject:" + key)) {
+                // 0) If the subject provides a custom localized answer, prefer it.
+                // If the question looks English, serve EN even if current convo language is FR.
+                // Overriding the conversation language needs explicit English markers
+                boolean looksEnglish = LanguageClassifier.EN.equals(languageClassifier.detectByMarkers(normalizedQuestion));
+                String localized = subject.answer(isEnglish || looksEnglish);
+                if (localized != null) {
+                    return localized;
+                }
+                // 1) Map some keys to known answers using existing logic
+                switch (key) {
+                    case "about": {
+                        // If a specific topic is present (e.g., Salesforce, Digital, Régie),
+                        // do not short-circuit to the generic description.
+                        boolean hasSpecific = hits.any("specific-topic");
+                        if (!hasSpecific) {
+                            return isEnglish ? defaultEn : defaultFr;
                         }
+                        // Let more specific alias handlers decide
+                        break;
                     }
+                    case "address":
+                        return (isEnglish ? "Address of **Gear9**:\n" : "Adresse de **Gear9**:\n") + company.address();
+                    case "services":
+                        return answers.get(AnswerTable.Intent.SERVICES, isEnglish);
+                    // Same sector and "since" year filters as the cascade
+                    case "clients":
+                        return answers.get(AnswerTable.Intent.PROJECTS, isEnglish, detectSecteur(hits));
+                    case "awards":
+                        return awardsReply(answers, words.firstYear(), isEnglish);
+                    case "leadership":
+                        return answers.get(AnswerTable.Intent.LEADERSHIP, isEnglish);
+                    case "expertise":
+                        return answers.get(AnswerTable.Intent.EXPERTISE_MAIN, isEnglish);
+                    case "salesforce":
+                    case "digital":
+                        // The detail of the expertise group of the same id (the original re-asked "<key> expertise"
+                        // through answer(), which matched an alias again and never returned)
+                        return answers.get(AnswerTable.Intent.EXPERTISE_DETAIL, isEnglish, key);
+                    default:
+                        return isEnglish ? defaultEn : defaultFr;
                 }
             }
         }
         return null;
     }
 
-    private String normalize(String s) {
-        if (s == null) return "";
-        String lower = s.toLowerCase(Locale.ROOT).trim();
-        String nfd = java.text.Normalizer.normalize(lower, java.text.Normalizer.Form.NFD);
-        return nfd.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+    // Lower-cased, accent-folded and trimmed, the form every keyword and alias is stored in
+    static String normalize(String s) {
+        return TextFold.foldTrimmed(s);
     }
 
 
+    /**
+     * Compact grounding context for a Gemini fallback: the company name plus the chunks
+     * that best match the question (BM25), deduplicated and cut to the token budget.
+     */
     public String buildContext(String questionRaw) {
-        if (root == null || root.path("data").isMissingNode()) return null;
+        KnowledgeSnapshot kb = snapshot;
+        CompanyKnowledge company = kb.company();
+        if (company == null) return null;
         if (questionRaw == null || questionRaw.isBlank()) return null;
-        String q = questionRaw.toLowerCase(Locale.ROOT);
-        JsonNode data = root.path("data");
 
-        StringBuilder sb = new StringBuilder();
-        // Company basics (always include for better grounding)
-        String nom = textOrNull(data.path("nom_entreprise"));
-        String apropos = textOrNull(data.path("apropos"));
-        String apercu = textOrNull(data.path("apercu"));
-        String adresse = textOrNull(data.path("adresse"));
-        if (nom != null) sb.append("Nom: ").append(nom).append('\n');
-        if (adresse != null) sb.append("Adresse: ").append(adresse).append('\n');
-        if (apropos != null) sb.append("À propos: ").append(apropos).append('\n');
-        if (apercu != null) sb.append("Aperçu: ").append(apercu).append('\n');
+        ContextAssembler context = new ContextAssembler(contextMaxTokens);
+        String nom = company.name();
+        if (nom != null) context.add("Nom: " + nom);
 
-        // Services
-        if (containsAny(q, "service", "offre", "offers", "offerings")) {
-            JsonNode services = data.path("services");
-            if (services.isArray()) {
-                int count = 0;
-                for (JsonNode s : services) {
-                    String n = textOrNull(s.path("nom"));
-                    String d = textOrNull(s.path("description"));
-                    if (n != null) {
-                        sb.append("Service: ").append(n);
-                        if (d != null) sb.append(" — ").append(d);
-                        sb.append('\n');
-                        if (++count >= 6) break;
-                    }
-                }
-            }
+        List<ChunkIndex.Scored> top = kb.chunks().search(questionRaw, contextTopK, Integer.MAX_VALUE);
+        if (top.isEmpty()) {
+            // Nothing specific matched: ground on the company overview only
+            ChunkIndex.Chunk about = kb.chunks().byId("company.about");
+            if (about != null) context.add(about.text());
         }
+        for (ChunkIndex.Scored s : top) {
+            if (!context.add(s.chunk().text())) break;
+        }
+        return context.build();
+    }
 
-        // Direction
-        if (containsAny(q, "pdg", "direction", "ceo", "leader", "director")) {
-            JsonNode direction = data.path("direction");
-            if (direction.isArray() && direction.size() > 0) {
-                JsonNode d = direction.get(0);
-                String role = textOrNull(d.path("role"));
-                String name = textOrNull(d.path("nom"));
-                if (role != null || name != null) {
-                    sb.append("Direction: ");
-                    if (role != null) sb.append(role).append(": ");
-                    if (name != null) sb.append(name);
-                    sb.append('\n');
-                }
+    /**
+     * Retrieval units: the "chunks" array of data.json when present, otherwise one chunk
+     * per company fact, service, award, project and expertise derived from "data".
+     */
+    private static List<ChunkIndex.Chunk> buildChunks(JsonNode root) {
+        List<ChunkIndex.Chunk> chunks = new ArrayList<>();
+        if (root == null) return chunks;
+
+        JsonNode declared = root.path("chunks");
+        if (declared.isArray() && declared.size() > 0) {
+            for (JsonNode c : declared) {
+                String id = textOrNull(c.path("id"));
+                String text = textOrNull(c.path("text"));
+                if (id == null || text == null) continue;
+                JsonNode meta = c.path("metadata");
+                List<String> keywords = new ArrayList<>();
+                meta.fields().forEachRemaining(e -> {
+                    if (e.getValue().isValueNode()) keywords.add(e.getValue().asText());
+                });
+                chunks.add(new ChunkIndex.Chunk(id, text, meta.path("section").asText("company"), String.join(" ", keywords)));
             }
+            return chunks;
         }
 
-        // Réalisations / récompenses
-        if (containsAny(q, "réalisation", "recompense", "récompense", "prix", "exploits", "award", "achievements", "rewards")) {
-            JsonNode rr = data.path("realisations_et_recompenses");
-            if (rr.isArray()) {
-                int count = 0;
-                for (JsonNode r : rr) {
-                    String titre = textOrNull(r.path("titre"));
-                    String lieu = textOrNull(r.path("lieu"));
-                    String annee = r.path("annee").isMissingNode() ? null : String.valueOf(r.path("annee").asInt());
-                    List<String> parts = new ArrayList<>();
-                    if (titre != null) parts.add(titre);
-                    if (annee != null) parts.add(annee);
-                    if (lieu != null) parts.add(lieu);
-                    if (!parts.isEmpty()) {
-                        sb.append("Récompense: ").append(String.join(" — ", parts)).append('\n');
-                        if (++count >= 6) break;
-                    }
-                }
-            }
+        JsonNode data = root.path("data");
+        String adresse = textOrNull(data.path("adresse"));
+        if (adresse != null) chunks.add(new ChunkIndex.Chunk("company.address", "Adresse: " + adresse, "company", "address location"));
+        String apropos = textOrNull(data.path("apropos"));
+        String apercu = textOrNull(data.path("apercu"));
+        if (apropos != null || apercu != null) {
+            String text = (apropos != null ? "À propos: " + apropos : "") + (apropos != null && apercu != null ? "\n" : "")
+                    + (apercu != null ? "Aperçu: " + apercu : "");
+            chunks.add(new ChunkIndex.Chunk("company.about", text, "company", "about overview"));
         }
 
-        // Projets (optional filtering by secteur)
-        if (containsAny(q, "projet", "client", "project", "clients", "portfolio", "reference")) {
-            JsonNode projets = data.path("projets");
-            String secteurFilter = detectSecteur(q);
-            if (projets.isArray()) {
-                int count = 0;
-                for (JsonNode p : projets) {
-                    String secteur = textOrNull(p.path("secteur"));
-                    if (secteurFilter == null || (secteur != null && secteur.toLowerCase(Locale.ROOT).contains(secteurFilter))) {
-                        String name = textOrNull(p.path("nom"));
-                        String type = textOrNull(p.path("type"));
-                        String desc = textOrNull(p.path("description"));
-                        List<String> parts = new ArrayList<>();
-                        if (name != null) parts.add(name);
-                        if (type != null) parts.add(type);
-                        if (desc != null) parts.add(desc);
-                        if (!parts.isEmpty()) {
-                            sb.append("Projet: ").append(String.join(" — ", parts)).append('\n');
-                            if (++count >= 6) break;
-                        }
-                    }
-                }
-            }
+        for (JsonNode s : data.path("services")) {
+            String n = textOrNull(s.path("nom"));
+            if (n == null) continue;
+            String d = textOrNull(s.path("description"));
+            chunks.add(new ChunkIndex.Chunk("service." + s.path("id").asText(n), "Service: " + n + (d != null ? " — " + d : ""), "services",
+                    joinNonNull(textOrNull(s.path("description_en")), textOrNull(s.path("categorie")))));
         }
 
-        String result = sb.toString().trim();
-        return result.isEmpty() ? null : result;
-    }
+        for (JsonNode d : data.path("direction")) {
+            String role = textOrNull(d.path("role"));
+            String name = textOrNull(d.path("nom"));
+            if (role == null && name == null) continue;
+            chunks.add(new ChunkIndex.Chunk("direction." + (role != null ? role : name), "Direction: " + (role != null ? role + ": " : "") + (name != null ? name : ""),
+                    "direction", "ceo leader director"));
+        }
 
-    private boolean containsAny(String haystack, String... needles) {
-        for (String n : needles) {
-            if (haystack.contains(n)) return true;
+        int award = 0;
+        for (JsonNode r : data.path("realisations_et_recompenses")) {
+            List<String> parts = new ArrayList<>();
+            String titre = textOrNull(r.path("titre"));
+            if (titre != null) parts.add(titre);
+            if (!r.path("annee").isMissingNode()) parts.add(String.valueOf(r.path("annee").asInt()));
+            String lieu = textOrNull(r.path("lieu"));
+            if (lieu != null) parts.add(lieu);
+            if (parts.isEmpty()) continue;
+            chunks.add(new ChunkIndex.Chunk("award." + award++, "Récompense: " + String.join(" — ", parts), "realisations_et_recompenses", "award achievement"));
+        }
+
+        for (JsonNode p : data.path("projets")) {
+            List<String> parts = new ArrayList<>();
+            String name = textOrNull(p.path("nom"));
+            String type = textOrNull(p.path("type"));
+            String desc = textOrNull(p.path("description"));
+            if (name != null) parts.add(name);
+            if (type != null) parts.add(type);
+            if (desc != null) parts.add(desc);
+            if (parts.isEmpty()) continue;
+            chunks.add(new ChunkIndex.Chunk("project." + p.path("id").asText(String.valueOf(chunks.size())), "Projet: " + String.join(" — ", parts), "projets",
+                    joinNonNull(textOrNull(p.path("secteur")), textOrNull(p.path("type_en")), textOrNull(p.path("description_en")))));
         }
-        return false;
-    }
 
-    // Word-boundary contains for single words (handles accents too)
-    private boolean containsAnyWord(String haystack, String... words) {
-        if (haystack == null) return false;
-        for (String w : words) {
-            if (w == null || w.isEmpty()) continue;
-            // Build a regex that approximates word boundaries for ASCII and accented letters
-            String regex = "(?<![a-záàâäãåçéèêëíìîïñóòôöõúùûüýÿ])" + Pattern.quote(w) + "(?![a-záàâäãåçéèêëíìîïñóòôöõúùûüýÿ])";
-            if (Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE).matcher(haystack).find()) {
-                return true;
+        for (JsonNode g : data.path("expertise")) {
+            String gname = textOrNull(g.path("nom"));
+            for (JsonNode d : g.path("details")) {
+                String n = textOrNull(d.path("nom"));
+                if (n == null) continue;
+                String desc = textOrNull(d.path("description"));
+                chunks.add(new ChunkIndex.Chunk("expertise." + g.path("id").asText() + "." + d.path("id").asText(n),
+                        (gname != null ? gname + " — " : "") + n + (desc != null ? ": " + desc : ""), "expertise",
+                        joinNonNull(textOrNull(d.path("nom_en")), textOrNull(d.path("description_en")))));
             }
         }
-        return false;
+        return chunks;
+    }
+
+    private static String joinNonNull(String... values) {
+        StringBuilder sb = new StringBuilder();
+        for (String v : values) {
+            if (v == null) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(v);
+        }
+        return sb.toString();
     }
 
     private String joinWithAnd(List<String> items, boolean isEnglish) {
@@ -730,73 +957,66 @@ public class CompanyQaService {
 
     // removed bilingual helpers to restore original behavior
 
-    private boolean isIdentityQuery(String q) {
+    private boolean isIdentityQuery(String q, KeywordMatcher.Hits hits) {
         if (q == null) return false;
-        String s = q.trim();
-        // Strip common leading fillers
-        if (s.startsWith("hey ") || s.startsWith("hi ") || s.startsWith("hello ") || s.startsWith("ay ")) {
-            s = s.substring(s.indexOf(' ') + 1);
+        // Strip common leading fillers (hits are positioned on q, so only look past the filler)
+        int from = 0;
+        if (q.startsWith("hey ") || q.startsWith("hi ") || q.startsWith("hello ") || q.startsWith("ay ")) {
+            from = q.indexOf(' ') + 1;
         }
         // Direct patterns in EN and FR
-        if (containsAny(s,
-                "who are you", "who r u", "who're you", "who are u",
-                "qui es-tu", "qui es tu", "qui êtes-vous", "qui etes vous", "tu es qui", "t'es qui")) {
+        if (hits.anyFrom("identity", from)) {
             return true;
         }
         // Heuristic: contains who + you and either are/r
-        if (s.contains("who") && s.contains("you") && (s.contains(" are ") || s.contains(" r "))) return true;
-         return false;
+        if (hits.anyFrom("identity-who", from) && hits.anyFrom("identity-you", from) && hits.anyFrom("identity-are", from)) return true;
+        return false;
     }
 
-    private boolean isLikelyGreetingOnly(String question) {
+    private boolean isLikelyGreetingOnly(String question, KeywordMatcher.Hits hits) {
         if (question == null) return false;
         if (question.contains("?")) return false;
         // Very short messages are likely just greetings
         if (question.length() > 24) return false;
         // If it includes obvious intent words, it's not a pure greeting
-        if (containsAny(question,
-                "adresse", "address", "service", "services", "projet", "projects", "client", "clients",
-                "réalisation", "recompense", "exploits", "award", "achievements", "rewards", "expertise", "qui", "quoi", "comment",
-                "où", "ou", "quelle", "quels", "quelles")) {
+        if (hits.any("intent-words")) {
             return false;
         }
         return true;
     }
 
-    private String textOrNull(JsonNode node) {
+    private static String textOrNull(JsonNode node) {
         if (node == null || node.isMissingNode() || node.isNull()) return null;
         String t = node.asText(null);
         return (t == null || t.isBlank()) ? null : t;
     }
 
-    private String textOrNullLang(JsonNode parent, String baseField, boolean isEnglish) {
-        if (parent == null) return null;
-        if (isEnglish) {
-            String en = textOrNull(parent.path(baseField + "_en"));
-            if (en != null) return en;
-        }
-        return textOrNull(parent.path(baseField));
-    }
-
-    private String detectSecteur(String question) {
-        // map of lower-case secteur keywords as they appear in JSON
-        String[] secteurs = new String[]{
-                // FR
-                "secteur public", "finance", "assurance", "télécom", "telecom", "retail",
-                "industrie", "education", "éducation", "hôtellerie", "hotellerie", "immobilier",
-                // EN
-                "public sector", "insurance", "telecommunications", "telecommunication", "telecom",
-                "industry", "hospitality", "real estate"
-        };
-        List<String> found = new ArrayList<>();
-        for (String s : secteurs) {
-            if (question.contains(s)) found.add(normalizeSecteur(s));
+    // Lower-case secteur keywords as they appear in JSON, in priority order
+    private static final String[] SECTEURS = new String[]{
+            // FR
+            "secteur public", "finance", "assurance", "télécom", "telecom", "retail",
+            "industrie", "education", "éducation", "hôtellerie", "hotellerie", "immobilier",
+            // EN
+            "public sector", "insurance", "telecommunications", "telecommunication", "telecom",
+            "industry", "hospitality", "real estate"
+    };
+
+    // Distinct sector values the keywords above map to, as CompanyKnowledge indexes projects
+    private static final List<String> SECTOR_KEYS = Arrays.stream(SECTEURS)
+            .map(CompanyQaService::normalizeSecteur).distinct().toList();
+
+    // Stands in for a data.json without "data" when precomputing replies
+    private static final CompanyKnowledge EMPTY = new CompanyKnowledge(null, null, null, null, List.of(), List.of(),
+            List.of(), List.of(), Map.of(), List.of(), List.of(), List.of());
+
+    private String detectSecteur(KeywordMatcher.Hits hits) {
+        for (String s : SECTEURS) {
+            if (hits.any("secteur:" + s)) return normalizeSecteur(s);
         }
-        if (found.isEmpty()) return null;
-        return found.get(0);
+        return null;
     }
 
-    private String normalizeSecteur(String s) {
+    private static String normalizeSecteur(String s) {
         // match JSON values
         switch (s) {
             case "telecom": return "télécom";
@@ -813,46 +1033,62 @@ public class CompanyQaService {
         }
     }
 
-    private JsonNode loadDataJson() {
-        // 1) Try absolute/relative file at module root
+    private record LoadedData(JsonNode root, String source) {
+    }
+
+    // strict: a broken module-root file is an error instead of falling back to the classpath copy
+    private LoadedData loadDataJson(boolean strict) {
+        List<String> errors = new ArrayList<>();
+        // 1) Try absolute/relative file at module root (the runtime override)
         try {
-            Path path = new File("data.json").toPath();
-            if (Files.exists(path)) {
+            Path path = new File(DATA_FILE).toPath();
+            if (dataOverride && Files.exists(path)) {
                 byte[] bytes = Files.readAllBytes(path);
-                return objectMapper.readTree(bytes);
+                return new LoadedData(objectMapper.readTree(bytes), path.toAbsolutePath().toString());
             }
-        } catch (IOException ignored) {}
+        } catch (IOException e) {
+            if (strict) return new LoadedData(null, DATA_FILE + ": " + e.getMessage());
+            errors.add(DATA_FILE + ": " + e.getMessage());
+        }
 
         // 2) Try classpath resource
         try {
-            ClassPathResource cpr = new ClassPathResource("data.json");
+            ClassPathResource cpr = new ClassPathResource(DATA_FILE);
             if (cpr.exists()) {
-                return objectMapper.readTree(cpr.getInputStream());
+                return new LoadedData(objectMapper.readTree(cpr.getInputStream()), "classpath:" + DATA_FILE);
             }
-        } catch (IOException ignored) {}
-
-        return null;
-    }
-
-    // Extract a 4-digit year from the question (e.g., 2023). Returns null if none found or out of range.
-    private Integer extractYear(String text) {
-        if (text == null) return null;
-        Matcher m = Pattern.compile("(?<!\\d)(19\\d{2}|20\\d{2})(?!\\d)").matcher(text);
-        if (m.find()) {
-            try {
-                int y = Integer.parseInt(m.group(1));
-                if (y >= 1900 && y <= 2100) return y;
-            } catch (NumberFormatException ignored) {}
+        } catch (IOException e) {
+            errors.add("classpath:" + DATA_FILE + ": " + e.getMessage());
         }
-        return null;
+
+        return new LoadedData(null, errors.isEmpty() ? "no " + DATA_FILE + " found" : String.join("; ", errors));
     }
 
     // Subjects for autocomplete (company basics, services, expertise, projects, awards, leadership)
     public List<String> getSubjects() {
+        return snapshot.subjects();
+    }
+
+    /**
+     * Quoted ETag of {@link #getSubjects()}; stays the same across reloads that keep the subjects.
+     */
+    public String getSubjectsETag() {
+        return snapshot.subjectsETag();
+    }
+
+    /**
+     * Up to {@code limit} subjects completing the prefix, ignoring case and accents
+     * (whole-subject matches first, then matches on a later word).
+     */
+    public List<String> suggestSubjects(String prefix, int limit) {
+        return snapshot.subjectTrie().suggest(prefix, Math.min(limit, SubjectTrie.MAX_COMPLETIONS));
+    }
+
+    private static Set<String> buildSubjects(JsonNode root) {
         Set<String> subjects = new LinkedHashSet<>();
-        if (root == null) return new ArrayList<>(subjects);
+        if (root == null) return subjects;
         JsonNode data = root.path("data");
-        if (data.isMissingNode()) return new ArrayList<>(subjects);
+        if (data.isMissingNode()) return subjects;
 
         // Company basics
         String nom = textOrNull(data.path("nom_entreprise"));
@@ -933,7 +1169,7 @@ public class CompanyQaService {
             }
         }
 
-        return new ArrayList<>(subjects);
+        return subjects;
     }
 }
 
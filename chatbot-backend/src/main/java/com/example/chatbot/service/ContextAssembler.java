@@ -0,0 +1,123 @@
+package com.example.chatbot.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Builds the grounding context of one Gemini prompt within an approximate token budget.
+ * Sections are added most relevant first and split into facts (lines, then sentences);
+ * a fact already sent by an earlier section is dropped, and the first fact that no longer
+ * fits is cut at a word boundary when enough budget is left, otherwise skipped.
+ */
+final class ContextAssembler {
+
+    // Below this, a cut fact carries too little to be worth sending
+    private static final int MIN_CUT_TOKENS = 12;
+    private static final String ELLIPSIS = "…";
+    private static final int MAX_LABEL = 24;
+
+    private final int maxTokens;
+    private final StringBuilder out = new StringBuilder();
+    private final Set<String> seen = new HashSet<>();
+    private int used;
+    private boolean full;
+
+    ContextAssembler(int maxTokens) {
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Rough Gemini token count: a word is one token per started four characters, other
+     * visible characters one each. Errs slightly high for French and English prose.
+     */
+    static int estimateTokens(CharSequence text) {
+        int tokens = 0;
+        int word = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word++;
+                continue;
+            }
+            tokens += (word + 3) / 4;
+            word = 0;
+            if (!Character.isWhitespace(c)) tokens++;
+        }
+        return tokens + (word + 3) / 4;
+    }
+
+    /**
+     * Adds the section's facts that are new and still fit; returns false once the budget is spent.
+     */
+    boolean add(String section) {
+        if (section == null || full) return !full;
+        for (String line : section.split("\n")) {
+            StringBuilder kept = new StringBuilder();
+            for (String fact : line.split("(?<=[.!?])\\s+")) {
+                String key = factKey(fact);
+                if (fact.isBlank() || (!key.isEmpty() && !seen.add(key))) continue;
+                String sep = kept.length() > 0 ? " " : "";
+                int cost = estimateTokens(fact) + (out.length() > 0 || kept.length() > 0 ? 1 : 0);
+                if (used + cost <= maxTokens) {
+                    kept.append(sep).append(fact.strip());
+                    used += cost;
+                    continue;
+                }
+                int left = maxTokens - used;
+                if (left >= MIN_CUT_TOKENS) {
+                    kept.append(sep).append(cut(fact.strip(), left - 2)).append(ELLIPSIS);
+                    used = maxTokens;
+                }
+                full = used >= maxTokens;
+                if (full) break;
+            }
+            if (kept.length() > 0) {
+                if (out.length() > 0) out.append('\n');
+                out.append(kept);
+            }
+            if (full) break;
+        }
+        return !full;
+    }
+
+    int usedTokens() {
+        return used;
+    }
+
+    /**
+     * The assembled context, or null when nothing was added.
+     */
+    String build() {
+        return out.length() == 0 ? null : out.toString();
+    }
+
+    // Folded, stemmed terms without the leading "Label: ", so the same fact matches across sections
+    private static String factKey(String fact) {
+        int colon = fact.indexOf(": ");
+        String body = colon > 0 && colon <= MAX_LABEL ? fact.substring(colon + 2) : fact;
+        return String.join(" ", ChunkIndex.terms(body));
+    }
+
+    // Longest word-boundary prefix estimated at no more than the given tokens
+    private static String cut(String fact, int tokens) {
+        int end = 0;
+        int spent = 0;
+        int word = 0;
+        for (int i = 0; i < fact.length(); i++) {
+            char c = fact.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word++;
+                continue;
+            }
+            spent += (word + 3) / 4;
+            word = 0;
+            if (Character.isWhitespace(c)) {
+                if (spent > tokens) break;
+                end = i;
+            } else {
+                spent++;
+            }
+        }
+        return fact.substring(0, end).stripTrailing();
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.chatbot.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ConversationSessionService {
-    
-    private final Map<String, String> conversationLanguages = new ConcurrentHashMap<>();
+
+    // Bounded and idle-expiring: the frontend mints a new conversationId on every page load
+    private final SessionStore conversationLanguages;
+    private final LanguageClassifier languageClassifier;
+
+    public ConversationSessionService(LanguageClassifier languageClassifier,
+                                      @Value("${chatbot.session.max-entries:10000}") int maxEntries,
+                                      @Value("${chatbot.session.idle-ttl-ms:1800000}") long idleTtlMs) {
+        this.languageClassifier = languageClassifier;
+        this.conversationLanguages = new SessionStore(maxEntries, idleTtlMs);
+    }
     
     /**
      * Detect the language of the user's message and store it for the conversation
@@ -18,11 +28,11 @@ public class ConversationSessionService {
      */
     public String detectAndStoreLanguage(String conversationId, String userMessage) {
         if (userMessage == null) {
-            return conversationLanguages.getOrDefault(conversationId, "fr");
+            return getConversationLanguage(conversationId);
         }
 
        
-        String detectedLanguage = detectLanguage(userMessage);
+        String detectedLanguage = languageClassifier.detectOrDefault(userMessage, LanguageClassifier.FR);
         if (conversationId != null) {
             conversationLanguages.put(conversationId, detectedLanguage);
         }
@@ -30,7 +40,7 @@ public class ConversationSessionService {
     }
 
     public String detectLanguageForMessage(String userMessage) {
-        return detectLanguage(userMessage);
+        return languageClassifier.detectOrDefault(userMessage, LanguageClassifier.FR);
     }
     
     /**
@@ -51,7 +61,23 @@ public class ConversationSessionService {
         if (conversationId == null) {
             return "fr";
         }
-        return conversationLanguages.getOrDefault(conversationId, "fr");
+        String language = conversationLanguages.get(conversationId);
+        return language != null ? language : "fr";
+    }
+
+    /**
+     * Size, estimated heap footprint, hit/miss, LRU eviction and idle expiry counters of the session store.
+     */
+    public Map<String, Object> sessionStats() {
+        SessionStore.Stats stats = conversationLanguages.stats();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", stats.size());
+        out.put("estimatedBytes", stats.estimatedBytes());
+        out.put("hits", stats.hits());
+        out.put("misses", stats.misses());
+        out.put("evictions", stats.evictions());
+        out.put("expirations", stats.expirations());
+        return out;
     }
     
     /**
@@ -63,59 +89,4 @@ public class ConversationSessionService {
             conversationLanguages.remove(conversationId);
         }
     }
-    
-    /**
-     * Detect language based on common keywords and patterns
-     * @param message The user message
-     * @return "en" for English, "fr" for French
-     */
-    private String detectLanguage(String message) {
-        if (message == null || message.trim().isEmpty()) {
-            return "fr"; // Default to French
-        }
-        
-        String lowerMessage = message.toLowerCase().trim();
-
-        // 1) Strong, exclusive indicators
-        int enScore = 0;
-        int frScore = 0;
-
-        if (containsAny(lowerMessage, "hello", "hi", "hey", "what", "where", "when", "who", "how", "why",
-                "address", "company", "about", "overview")) enScore += 3;
-        if (containsAny(lowerMessage, "bonjour", "salut", "bonsoir", "quoi", "où", "ou ", "qui", "quand", "comment", "pourquoi",
-                "adresse", "entreprise", "société", "societe", "à propos", "apropos")) frScore += 3;
-
-        // 2) Presence of accented characters is a strong French signal
-        if (lowerMessage.matches(".*[éèêàùâîïôç].*")) frScore += 2;
-
-        // 3) Common stopwords heuristics (weak signals)
-        if (containsAny(lowerMessage, " the ", " and ", " of ", " in ", " to ", " for ")) enScore += 1;
-        if (containsAny(lowerMessage, " le ", " la ", " les ", " des ", " du ", " et ")) frScore += 1;
-
-        // 2.5) English ASCII heuristic: if text is plain ASCII and contains common EN terms
-        boolean looksAscii = lowerMessage.matches("[\\p{ASCII}]+");
-        if (looksAscii && containsAny(lowerMessage, "what", "services", "provided", "by", "address", "company")) {
-            enScore += 2;
-        }
-
-        if (enScore > frScore) return "en";
-        if (frScore > enScore) return "fr";
-
-        // 4) Tie-breakers
-        if (lowerMessage.contains("address") || lowerMessage.contains("where")) return "en";
-        if (lowerMessage.contains("adresse") || lowerMessage.contains("où") || lowerMessage.contains("ou ")) return "fr";
-
-        // Default to French
-        return "fr";
-    }
-    
-    private boolean containsAny(String haystack, String... needles) {
-        for (String needle : needles) {
-            if (haystack.contains(needle)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
 }
@@ -0,0 +1,108 @@
+package com.example.chatbot.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the module-root data.json and reloads the knowledge base when it changes, when the
+ * runtime override (chatbot.data.override) is on; otherwise the knowledge base is compiled in.
+ * Editors often write a file in several steps, so events are debounced before reloading.
+ */
+@Component
+public class DataFileWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(DataFileWatcher.class);
+
+    private final CompanyQaService companyQaService;
+
+    @Value("${chatbot.data.watch:true}")
+    private boolean enabled;
+
+    @Value("${chatbot.data.watch.debounce-ms:500}")
+    private long debounceMs;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public DataFileWatcher(CompanyQaService companyQaService) {
+        this.companyQaService = companyQaService;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled || !companyQaService.dataOverride()) return;
+        Path file = companyQaService.dataFile();
+        Path dir = file.getParent();
+        if (dir == null || !Files.isDirectory(dir)) return;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.warn("Cannot watch {}: {}", file, e.getMessage());
+            return;
+        }
+        thread = new Thread(() -> watch(file), "data-json-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for changes", file);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        if (thread != null) thread.interrupt();
+    }
+
+    private void watch(Path file) {
+        Path name = file.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = containsFile(key, name);
+                key.reset();
+                if (!changed) continue;
+
+                // Debounce: swallow the burst of events a single save produces
+                WatchKey more;
+                while ((more = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                try {
+                    companyQaService.reload();
+                } catch (RuntimeException e) {
+                    log.warn("Ignoring invalid {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean containsFile(WatchKey key, Path name) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (name.equals(event.context())) changed = true;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.chatbot.service;
+
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled keep-alive HTTP client shared by all Gemini calls (generate, stream, translate, reformulate),
+ * plus the non-blocking WebClient of the opt-in reactive chat path, on the same pool and timeout settings.
+ * All lazy: nothing here is built until the first Gemini call, so startup does not pay for it.
+ */
+@Configuration
+public class GeminiHttpConfig {
+
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public CloseableHttpClient geminiHttpClient(
+            @Value("${chatbot.gemini.http.max-total:50}") int maxTotal,
+            @Value("${chatbot.gemini.http.max-per-route:20}") int maxPerRoute,
+            @Value("${chatbot.gemini.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${chatbot.gemini.http.read-timeout-ms:30000}") long readTimeoutMs,
+            @Value("${chatbot.gemini.http.idle-evict-ms:30000}") long idleEvictMs) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a free pooled connection counts as connecting
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean
+    @Lazy
+    public RestTemplate geminiRestTemplate(@Qualifier("geminiHttpClient") CloseableHttpClient httpClient,
+                                           @Value("${chatbot.gemini.http.total-timeout-ms:60000}") long totalTimeoutMs) {
+        return new RestTemplate(new DeadlineRequestFactory(httpClient, totalTimeoutMs));
+    }
+
+    /**
+     * Reactor Netty client for {@link GeminiService#generateReplyReactive}: a bounded connection pool
+     * whose waiters give up after the connect timeout, and a per-response read timeout. The total
+     * timeout is applied to each call by GeminiService. Only built when chatbot.reactive.enabled is set.
+     */
+    @Bean(destroyMethod = "dispose")
+    @Lazy
+    @ConditionalOnProperty(name = "chatbot.reactive.enabled", havingValue = "true")
+    public ConnectionProvider geminiConnectionProvider(
+            @Value("${chatbot.gemini.http.max-total:50}") int maxTotal,
+            @Value("${chatbot.gemini.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${chatbot.gemini.http.idle-evict-ms:30000}") long idleEvictMs) {
+        return ConnectionProvider.builder("gemini")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(idleEvictMs))
+                .evictInBackground(Duration.ofMillis(idleEvictMs))
+                .build();
+    }
+
+    @Bean
+    @Lazy
+    @ConditionalOnProperty(name = "chatbot.reactive.enabled", havingValue = "true")
+    public WebClient geminiWebClient(WebClient.Builder builder,
+                                     @Qualifier("geminiConnectionProvider") ConnectionProvider connections,
+                                     @Value("${chatbot.gemini.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                     @Value("${chatbot.gemini.http.read-timeout-ms:30000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(connectTimeoutMs, Integer.MAX_VALUE))
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    /**
+     * Aborts any exchange still running after the total timeout, so a slow trickle of bytes
+     * (which resets the read timeout on every packet) cannot hold a request thread forever.
+     * The deadline is dropped as soon as the response is closed or the exchange fails.
+     */
+    static final class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "gemini-http-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+
+        static {
+            // Cancelled deadlines leave the queue at once instead of holding their request until they expire
+            DEADLINES.setRemoveOnCancelPolicy(true);
+        }
+
+        private final long totalTimeoutMs;
+        // Hands the deadline scheduled in createHttpUriRequest to the createRequest call that triggered it
+        private final ThreadLocal<ScheduledFuture<?>> scheduled = new ThreadLocal<>();
+
+        DeadlineRequestFactory(CloseableHttpClient httpClient, long totalTimeoutMs) {
+            super(httpClient);
+            this.totalTimeoutMs = totalTimeoutMs;
+        }
+
+        static int pendingDeadlines() {
+            return DEADLINES.getQueue().size();
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            ClientHttpRequest request;
+            ScheduledFuture<?> deadline;
+            try {
+                request = super.createRequest(uri, httpMethod);
+            } catch (IOException | RuntimeException e) {
+                ScheduledFuture<?> orphan = scheduled.get();
+                if (orphan != null) orphan.cancel(false);
+                throw e;
+            } finally {
+                deadline = scheduled.get();
+                scheduled.remove();
+            }
+            return deadline == null ? request : new DeadlineRequest(request, deadline);
+        }
+
+        @Override
+        protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+            ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+            if (totalTimeoutMs > 0 && request instanceof HttpUriRequestBase cancellable) {
+                scheduled.set(DEADLINES.schedule(cancellable::cancel, totalTimeoutMs, TimeUnit.MILLISECONDS));
+            }
+            return request;
+        }
+    }
+
+    // Cancels the deadline when the exchange fails or its response is closed
+    private record DeadlineRequest(ClientHttpRequest delegate, ScheduledFuture<?> deadline) implements ClientHttpRequest {
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            try {
+                return new DeadlineResponse(delegate.execute(), deadline);
+            } catch (IOException | RuntimeException e) {
+                deadline.cancel(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+    }
+
+    private record DeadlineResponse(ClientHttpResponse delegate, ScheduledFuture<?> deadline) implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+    }
+}
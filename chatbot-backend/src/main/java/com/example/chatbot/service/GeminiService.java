@@ -1,17 +1,40 @@
 package com.example.chatbot.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 public class GeminiService {
@@ -26,8 +49,60 @@ public class GeminiService {
     @Value("${chatbot.systemPrompt:You are GearBot, Gear9's assistant. Always be concise, factual, and professional. Answer in the same language as the user's last message (French or English). Do not greet unless explicitly asked. Prefer the company context provided (name, address, about, services, expertises, projects, awards). If information is missing, say so briefly and offer alternatives.}")
     private String systemPrompt;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${chatbot.gemini.http.total-timeout-ms:60000}")
+    private long totalTimeoutMs;
+
+    // Only present in reactive mode (chatbot.reactive.enabled); built on first use
+    @Autowired
+    @Qualifier("geminiWebClient")
+    private ObjectProvider<WebClient> webClient;
+
+    private static final String MISSING_KEY = "Server is missing Gemini API key.";
+    private static final String NO_RESPONSE = "The AI service did not return a response.";
+    private static final String EMPTY_RESPONSE = "The AI returned an empty response.";
+    private static final String UNEXPECTED_FORMAT = "The AI response format was unexpected.";
+
+    // Metric tags: which call, and what went wrong
+    private static final String CALL_REPLY = "reply";
+    private static final String CALL_STREAM = "stream";
+    private static final String CALL_TRANSLATE = "translate";
+    private static final String CALL_REFORMULATE = "reformulate";
+    private static final String ERROR_HTTP = "http";
+    private static final String ERROR_IO = "io";
+    private static final String ERROR_PARSE = "parse";
+    private static final String ERROR_CIRCUIT_OPEN = "circuit-open";
+
+    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReplyCache replyCache;
+    private final SimilarReplyCache similarCache;
+    private final TranslationMemory translationMemory;
+    private final CircuitBreaker breaker;
+    private final LanguageClassifier languageClassifier;
+    private final ChatMetrics metrics;
+
+    // The pooled HTTP stack behind restTemplate is only built on the first Gemini call, off the startup path
+    public GeminiService(@Lazy @Qualifier("geminiRestTemplate") RestTemplate restTemplate, LanguageClassifier languageClassifier,
+                         ChatMetrics metrics,
+                         @Value("${chatbot.gemini.cache.max-entries:500}") int cacheMaxEntries,
+                         @Value("${chatbot.gemini.cache.ttl-ms:1800000}") long cacheTtlMs,
+                         @Value("${chatbot.gemini.similar.max-entries:500}") int similarMaxEntries,
+                         @Value("${chatbot.gemini.similar.max-distance:3}") int similarMaxDistance,
+                         @Value("${chatbot.gemini.breaker.window:20}") int breakerWindow,
+                         @Value("${chatbot.gemini.breaker.min-calls:5}") int breakerMinCalls,
+                         @Value("${chatbot.gemini.breaker.failure-rate:50}") int breakerFailureRate,
+                         @Value("${chatbot.gemini.breaker.open-ms:30000}") long breakerOpenMs,
+                         @Value("${chatbot.gemini.breaker.half-open-calls:2}") int breakerHalfOpenCalls,
+                         @Value("${chatbot.gemini.translation-memory.file:translation-memory.bin}") String translationMemoryFile) {
+        this.restTemplate = restTemplate;
+        this.languageClassifier = languageClassifier;
+        this.metrics = metrics;
+        this.replyCache = new ReplyCache(cacheMaxEntries, cacheTtlMs);
+        this.similarCache = new SimilarReplyCache(similarMaxEntries, similarMaxDistance, cacheTtlMs);
+        this.translationMemory = TranslationMemory.open(
+                translationMemoryFile == null || translationMemoryFile.isBlank() ? null : Path.of(translationMemoryFile));
+        this.breaker = new CircuitBreaker(breakerWindow, breakerMinCalls, breakerFailureRate, breakerOpenMs, breakerHalfOpenCalls);
+    }
 
     public String generateReply(String userMessage) {
         return generateReply(userMessage, null);
@@ -39,12 +114,366 @@ public class GeminiService {
 
     public String generateReply(String userMessage, String contextText, String preferredLanguage) {
         if (geminiApiKey == null || geminiApiKey.isBlank()) {
-            return "Server is missing Gemini API key.";
+            return MISSING_KEY;
         }
+        String language = (preferredLanguage != null && !preferredLanguage.isBlank())
+                ? preferredLanguage.toLowerCase()
+                : inferLanguageInstruction(userMessage);
+        return replyCache.get(replyKey(userMessage, contextText, language),
+                () -> similarOrCall(userMessage, contextText, preferredLanguage, language),
+                this::isCacheableReply);
+    }
 
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/"
-                + geminiModel + ":generateContent?key=" + geminiApiKey;
+    // Exact-key miss: reuse the reply to a paraphrase in the same language and context before calling Gemini
+    private String similarOrCall(String userMessage, String contextText, String preferredLanguage, String language) {
+        String similar = similarCache.get(language, contextText, userMessage);
+        if (similar != null) return similar;
+        String reply = callGenerateReply(userMessage, contextText, preferredLanguage);
+        if (isCacheableReply(reply)) similarCache.put(language, contextText, userMessage, reply);
+        return reply;
+    }
+
+    /**
+     * Drops the cached replies, which were built on the company context of the previous knowledge
+     * snapshot. The translate/reformulate memory is kept: its keys are the texts themselves.
+     */
+    void clearReplyCaches() {
+        replyCache.clear();
+        similarCache.clear();
+    }
+
+    /**
+     * Hit/miss/eviction counters of the generateReply cache and of its paraphrase tier,
+     * and the size of the translate/reformulate memory.
+     */
+    public Map<String, Object> replyCacheStats() {
+        ReplyCache.Stats stats = replyCache.stats();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", replyCache.enabled());
+        out.put("size", stats.size());
+        out.put("hits", stats.hits());
+        out.put("misses", stats.misses());
+        out.put("evictions", stats.evictions());
+        SimilarReplyCache.Stats similar = similarCache.stats();
+        Map<String, Object> paraphrases = new LinkedHashMap<>();
+        paraphrases.put("enabled", similarCache.enabled());
+        paraphrases.put("size", similar.size());
+        paraphrases.put("hits", similar.hits());
+        paraphrases.put("misses", similar.misses());
+        paraphrases.put("evictions", similar.evictions());
+        out.put("similar", paraphrases);
+        Map<String, Object> memory = new LinkedHashMap<>();
+        memory.put("persistent", translationMemory.persistent());
+        memory.put("size", translationMemory.size());
+        out.put("translationMemory", memory);
+        return out;
+    }
+
+    @PreDestroy
+    void closeTranslationMemory() {
+        translationMemory.close();
+    }
+
+    /**
+     * Circuit breaker state, reason, failure window and recent transitions.
+     */
+    public Map<String, Object> circuitStatus() {
+        CircuitBreaker.Status status = breaker.status();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("state", status.state().name());
+        out.put("reason", status.reason());
+        out.put("since", status.since().toString());
+        out.put("windowCalls", status.windowCalls());
+        out.put("windowFailures", status.windowFailures());
+        List<Map<String, Object>> transitions = new ArrayList<>();
+        for (CircuitBreaker.Transition t : status.transitions()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("from", t.from().name());
+            entry.put("to", t.to().name());
+            entry.put("at", t.at().toString());
+            entry.put("reason", t.reason());
+            transitions.add(entry);
+        }
+        out.put("transitions", transitions);
+        return out;
+    }
+
+    private String callGenerateReply(String userMessage, String contextText, String preferredLanguage) {
+        CircuitBreaker.Permit permit = breaker.acquire();
+        if (permit == null) return openCircuitReply(CALL_REPLY, preferredLanguage);
+
+        String url = modelUrl("generateContent");
+        HttpEntity<Map<String, Object>> entity = replyRequest(CALL_REPLY, userMessage, contextText, preferredLanguage);
+
+        try {
+            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            metrics.geminiResponse(CALL_REPLY, response.getStatusCode().value());
+
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                permit.failure(false);
+                return NO_RESPONSE;
+            }
+            permit.success();
+            return replyText(response.getBody());
+        } catch (RestClientResponseException e) {
+            String apiMessage = extractApiErrorMessage(e.getResponseBodyAsString());
+            // Graceful handling for quota / rate limit errors
+            boolean quotaLike = isQuotaLike(e.getStatusCode().value(), apiMessage);
+            recordHttpError(CALL_REPLY, permit, e.getStatusCode().value(), quotaLike);
+            if (quotaLike) {
+                return friendlyQuotaMessage(preferredLanguage);
+            }
+            if (apiMessage != null && !apiMessage.isBlank()) {
+                throw new RuntimeException("Gemini API error: " + apiMessage);
+            }
+            throw new RuntimeException("Gemini API error: " + e.getStatusCode().value() + " " + e.getStatusText());
+        } catch (ResourceAccessException e) {
+            permit.failure(false);
+            metrics.geminiError(CALL_REPLY, ERROR_IO);
+            throw new RuntimeException("Unable to reach Gemini service. Please check your network.");
+        } catch (Exception e) {
+            metrics.geminiError(CALL_REPLY, ERROR_PARSE);
+            throw new RuntimeException("Failed to process AI response: " + e.getMessage());
+        } finally {
+            permit.close();
+        }
+    }
+
+    // Reply text of a generateContent response, greeting stripped, or one of the fixed error replies
+    private String replyText(String body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        metrics.tokens(CALL_REPLY, root.path("usageMetadata"));
+        JsonNode candidates = root.path("candidates");
+        if (candidates.isArray() && candidates.size() > 0) {
+            JsonNode parts = candidates.get(0).path("content").path("parts");
+            if (parts.isArray() && parts.size() > 0) {
+                String text = parts.get(0).path("text").asText();
+                if (text == null || text.isBlank()) return EMPTY_RESPONSE;
+                String cleaned = cleanResponse(text);
+                return cleaned.isBlank() ? text.trim() : cleaned;
+            }
+        }
+        return UNEXPECTED_FORMAT;
+    }
+
+    /**
+     * Whether {@link #generateReplyReactive} can be used (chatbot.reactive.enabled).
+     */
+    public boolean reactiveEnabled() {
+        return webClient.getIfAvailable() != null;
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateReply(String, String, String)} on the pooled
+     * WebClient: same caches, circuit breaker, metrics and replies, but no thread waits on
+     * Gemini. Unlike the blocking path, concurrent misses on one question are not merged.
+     * Cancelling the subscription frees the circuit permit without recording an outcome.
+     */
+    public Mono<String> generateReplyReactive(String userMessage, String contextText, String preferredLanguage) {
+        WebClient client = webClient.getIfAvailable();
+        if (client == null) {
+            return Mono.error(new IllegalStateException("Reactive mode is off (chatbot.reactive.enabled)"));
+        }
+        if (geminiApiKey == null || geminiApiKey.isBlank()) {
+            return Mono.just(MISSING_KEY);
+        }
+        String language = (preferredLanguage != null && !preferredLanguage.isBlank())
+                ? preferredLanguage.toLowerCase()
+                : inferLanguageInstruction(userMessage);
+        String key = replyKey(userMessage, contextText, language);
+        String cached = replyCache.getIfPresent(key);
+        if (cached == null) cached = similarCache.get(language, contextText, userMessage);
+        if (cached != null) return Mono.just(cached);
+
+        CircuitBreaker.Permit permit = breaker.acquire();
+        if (permit == null) return Mono.fromCallable(() -> openCircuitReply(CALL_REPLY, preferredLanguage));
+
+        HttpEntity<Map<String, Object>> entity = replyRequest(CALL_REPLY, userMessage, contextText, preferredLanguage);
+        return client.post()
+                .uri(modelUrl("generateContent"))
+                .headers(headers -> headers.addAll(entity.getHeaders()))
+                .bodyValue(entity.getBody())
+                .retrieve()
+                .toEntity(String.class)
+                .timeout(Duration.ofMillis(totalTimeoutMs))
+                .flatMap(response -> Mono.fromCallable(() -> {
+                    metrics.geminiResponse(CALL_REPLY, response.getStatusCode().value());
+                    if (response.getBody() == null) {
+                        permit.failure(false);
+                        return NO_RESPONSE;
+                    }
+                    permit.success();
+                    String reply = replyText(response.getBody());
+                    if (isCacheableReply(reply)) {
+                        replyCache.put(key, reply);
+                        similarCache.put(language, contextText, userMessage, reply);
+                    }
+                    return reply;
+                }))
+                .onErrorResume(e -> reactiveFailure(e, permit, preferredLanguage))
+                .doFinally(signal -> permit.close());
+    }
+
+    // Same outcomes, metrics and messages as the catch blocks of callGenerateReply
+    private Mono<String> reactiveFailure(Throwable e, CircuitBreaker.Permit permit, String preferredLanguage) {
+        if (e instanceof WebClientResponseException http) {
+            String apiMessage = extractApiErrorMessage(http.getResponseBodyAsString());
+            boolean quotaLike = isQuotaLike(http.getStatusCode().value(), apiMessage);
+            recordHttpError(CALL_REPLY, permit, http.getStatusCode().value(), quotaLike);
+            if (quotaLike) {
+                return Mono.just(friendlyQuotaMessage(preferredLanguage));
+            }
+            if (apiMessage != null && !apiMessage.isBlank()) {
+                return Mono.error(new RuntimeException("Gemini API error: " + apiMessage));
+            }
+            return Mono.error(new RuntimeException("Gemini API error: " + http.getStatusCode().value() + " " + http.getStatusText()));
+        }
+        if (e instanceof WebClientRequestException || e instanceof TimeoutException) {
+            permit.failure(false);
+            metrics.geminiError(CALL_REPLY, ERROR_IO);
+            return Mono.error(new RuntimeException("Unable to reach Gemini service. Please check your network."));
+        }
+        metrics.geminiError(CALL_REPLY, ERROR_PARSE);
+        return Mono.error(new RuntimeException("Failed to process AI response: " + e.getMessage()));
+    }
+
+    /**
+     * Streaming variant of {@link #generateReply(String, String, String)} backed by
+     * streamGenerateContent: text is handed to {@code onToken} as it arrives, with the
+     * leading greeting stripped on the fly. Returns the complete reply.
+     */
+    public String streamReply(String userMessage, String contextText, String preferredLanguage, Consumer<String> onToken) {
+        if (geminiApiKey == null || geminiApiKey.isBlank()) {
+            onToken.accept(MISSING_KEY);
+            return MISSING_KEY;
+        }
+        String language = (preferredLanguage != null && !preferredLanguage.isBlank())
+                ? preferredLanguage.toLowerCase()
+                : inferLanguageInstruction(userMessage);
+        String key = replyKey(userMessage, contextText, language);
+        String cached = replyCache.getIfPresent(key);
+        if (cached == null) cached = similarCache.get(language, contextText, userMessage);
+        if (cached != null) {
+            onToken.accept(cached);
+            return cached;
+        }
+
+        CircuitBreaker.Permit permit = breaker.acquire();
+        if (permit == null) {
+            String message = openCircuitReply(CALL_STREAM, preferredLanguage);
+            onToken.accept(message);
+            return message;
+        }
+
+        String url = modelUrl("streamGenerateContent") + "&alt=sse";
+        HttpEntity<Map<String, Object>> entity = replyRequest(CALL_STREAM, userMessage, contextText, preferredLanguage);
+        GreetingStripper stripper = new GreetingStripper();
+        StringBuilder raw = new StringBuilder();
+        boolean[] emitted = {false};
+        // Each chunk carries the usage so far; the last one has the totals
+        JsonNode[] usage = {null};
+        Consumer<String> forward = text -> {
+            if (!text.isEmpty()) {
+                emitted[0] = true;
+                onToken.accept(text);
+            }
+        };
+
+        try {
+            restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(entity), response -> {
+                metrics.geminiResponse(CALL_STREAM, response.getStatusCode().value());
+                BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+                boolean finished = false;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) continue;
+                    String json = line.substring(5).trim();
+                    if (json.isEmpty()) continue;
+                    JsonNode chunk;
+                    try {
+                        chunk = objectMapper.readTree(json);
+                    } catch (JsonProcessingException e) {
+                        // Unchecked, so RestTemplate does not report it as an I/O error
+                        throw new MalformedStreamException(e);
+                    }
+                    if (chunk.has("usageMetadata")) usage[0] = chunk.get("usageMetadata");
+                    if (chunk.path("candidates").path(0).hasNonNull("finishReason")) finished = true;
+                    String text = streamedText(chunk);
+                    raw.append(text);
+                    forward.accept(stripper.accept(text));
+                }
+                if (!finished) throw new IOException("Gemini stream ended before its final chunk");
+                // Only a fully read stream counts as a success for the breaker
+                permit.success();
+                return null;
+            });
+        } catch (RestClientResponseException e) {
+            String apiMessage = extractApiErrorMessage(e.getResponseBodyAsString());
+            boolean quotaLike = isQuotaLike(e.getStatusCode().value(), apiMessage);
+            recordHttpError(CALL_STREAM, permit, e.getStatusCode().value(), quotaLike);
+            if (quotaLike) {
+                String message = friendlyQuotaMessage(preferredLanguage);
+                onToken.accept(message);
+                return message;
+            }
+            if (apiMessage != null && !apiMessage.isBlank()) {
+                throw new RuntimeException("Gemini API error: " + apiMessage);
+            }
+            throw new RuntimeException("Gemini API error: " + e.getStatusCode().value() + " " + e.getStatusText());
+        } catch (ResourceAccessException e) {
+            // Connection failures and read errors or truncation mid-stream
+            permit.failure(false);
+            metrics.geminiError(CALL_STREAM, ERROR_IO);
+            throw new RuntimeException("Unable to reach Gemini service. Please check your network.");
+        } catch (MalformedStreamException e) {
+            permit.failure(false);
+            metrics.geminiError(CALL_STREAM, ERROR_PARSE);
+            throw new RuntimeException("Failed to process AI response: " + e.getCause().getMessage());
+        } finally {
+            permit.close();
+        }
+        metrics.tokens(CALL_STREAM, usage[0]);
+        forward.accept(stripper.finish());
+
+        if (raw.toString().isBlank()) {
+            onToken.accept(EMPTY_RESPONSE);
+            return EMPTY_RESPONSE;
+        }
+        String reply = cleanResponse(raw.toString());
+        if (!emitted[0]) {
+            // The whole reply was a greeting; send it as is, like generateReply does
+            reply = raw.toString().trim();
+            onToken.accept(reply);
+        }
+        if (isCacheableReply(reply)) {
+            replyCache.put(key, reply);
+            similarCache.put(language, contextText, userMessage, reply);
+        }
+        return reply;
+    }
+
+    private static final class MalformedStreamException extends RuntimeException {
+        MalformedStreamException(JsonProcessingException cause) {
+            super(cause);
+        }
+    }
 
+    private static String streamedText(JsonNode chunk) {
+        JsonNode parts = chunk.path("candidates").path(0).path("content").path("parts");
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : parts) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.toString();
+    }
+
+    private String modelUrl(String method) {
+        return "https://generativelanguage.googleapis.com/v1beta/models/"
+                + geminiModel + ":" + method + "?key=" + geminiApiKey;
+    }
+
+    // Also records the prompt size under call, from the strings the request is built from
+    private HttpEntity<Map<String, Object>> replyRequest(String call, String userMessage, String contextText, String preferredLanguage) {
         Map<String, Object> body = new HashMap<>();
         
         // Use a translator-specific system prompt to avoid any chat persona influence
@@ -60,14 +489,15 @@ public class GeminiService {
                     ? "Please answer in English only. Do not greet; reply concisely and professionally."
                     : "Réponds uniquement en français. Ne salue pas; réponds de manière concise et professionnelle.")
                 : inferLanguageInstruction(userMessage);
+        String combined;
         if (contextText != null && !contextText.isBlank()) {
-            String combined = languageInstruction + "\n\nContext (company data):\n" + contextText + "\n\nQuestion:\n" + userMessage;
-            userContent.put("parts", List.of(Map.of("text", combined)));
+            combined = languageInstruction + "\n\nContext (company data):\n" + contextText + "\n\nQuestion:\n" + userMessage;
         } else {
-            String combined = languageInstruction + "\n\n" + userMessage;
-            userContent.put("parts", List.of(Map.of("text", combined)));
+            combined = languageInstruction + "\n\n" + userMessage;
         }
+        userContent.put("parts", List.of(Map.of("text", combined)));
         body.put("contents", List.of(userContent));
+        metrics.promptSize(call, translatorSystem.length() + combined.length());
 
         // Optional: gentle defaults
         body.put("generationConfig", Map.of(
@@ -80,51 +510,20 @@ public class GeminiService {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.add("x-goog-api-key", geminiApiKey);
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-        try {
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                return "The AI service did not return a response.";
-            }
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            JsonNode candidates = root.path("candidates");
-            if (candidates.isArray() && candidates.size() > 0) {
-                JsonNode parts = candidates.get(0).path("content").path("parts");
-                if (parts.isArray() && parts.size() > 0) {
-                    String text = parts.get(0).path("text").asText();
-                    if (text == null || text.isBlank()) return "The AI returned an empty response.";
-                    String cleaned = cleanResponse(text);
-                    return cleaned.isBlank() ? text.trim() : cleaned;
-                }
-            }
-            return "The AI response format was unexpected.";
-        } catch (RestClientResponseException e) {
-            String apiMessage = extractApiErrorMessage(e.getResponseBodyAsString());
-            // Graceful handling for quota / rate limit errors
-            int status = e.getStatusCode().value();
-            boolean quotaLike = status == 429
-                    || (apiMessage != null && apiMessage.toLowerCase().contains("quota"))
-                    || (apiMessage != null && apiMessage.toLowerCase().contains("rate limit"))
-                    || (apiMessage != null && apiMessage.toLowerCase().contains("exceeded"));
-            if (quotaLike) {
-                return friendlyQuotaMessage(preferredLanguage);
-            }
-            if (apiMessage != null && !apiMessage.isBlank()) {
-                throw new RuntimeException("Gemini API error: " + apiMessage);
-            }
-            throw new RuntimeException("Gemini API error: " + e.getStatusCode().value() + " " + e.getStatusText());
-        } catch (ResourceAccessException e) {
-            throw new RuntimeException("Unable to reach Gemini service. Please check your network.");
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to process AI response: " + e.getMessage());
-        }
+        return new HttpEntity<>(body, headers);
     }
 
 
+    /**
+     * Translates into the target language ("en", otherwise French). Results are kept in the
+     * translation memory and reused for the same text, language and model, even across restarts.
+     */
     public String translate(String text, String targetLanguage) {
+        if (text == null || text.isBlank()) return text;
+        String language = targetLanguage != null && targetLanguage.equalsIgnoreCase("en") ? "en" : "fr";
+        String memoryKey = TranslationMemory.key(CALL_TRANSLATE, geminiModel, language, text);
+        String remembered = translationMemory.get(memoryKey);
+        if (remembered != null) return remembered;
         if (geminiApiKey == null || geminiApiKey.isBlank()) {
             return text;
         }
@@ -143,7 +542,8 @@ public class GeminiService {
 
         Map<String, Object> userContent = new HashMap<>();
         userContent.put("role", "user");
-        userContent.put("parts", List.of(Map.of("text", instruction + "\n\n" + text)));
+        String userText = instruction + "\n\n" + text;
+        userContent.put("parts", List.of(Map.of("text", userText)));
         body.put("contents", List.of(userContent));
 
         body.put("generationConfig", Map.of(
@@ -157,33 +557,51 @@ public class GeminiService {
         headers.add("x-goog-api-key", geminiApiKey);
 
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        CircuitBreaker.Permit permit = breaker.acquire();
+        if (permit == null) {
+            metrics.geminiError(CALL_TRANSLATE, ERROR_CIRCUIT_OPEN);
+            return text;
+        }
+        metrics.promptSize(CALL_TRANSLATE, systemPrompt.length() + userText.length());
         try {
             ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            metrics.geminiResponse(CALL_TRANSLATE, response.getStatusCode().value());
             if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                permit.failure(false);
                 return text;
             }
+            permit.success();
             JsonNode root = objectMapper.readTree(response.getBody());
+            metrics.tokens(CALL_TRANSLATE, root.path("usageMetadata"));
             JsonNode candidates = root.path("candidates");
             if (candidates.isArray() && candidates.size() > 0) {
                 JsonNode parts = candidates.get(0).path("content").path("parts");
                 if (parts.isArray() && parts.size() > 0) {
                     String translated = parts.get(0).path("text").asText();
-                    return translated != null && !translated.isBlank() ? cleanResponse(translated) : text;
+                    // Checked after cleaning: a greeting-only reply cleans down to nothing
+                    String cleaned = cleanResponse(translated);
+                    if (cleaned == null || cleaned.isBlank()) return text;
+                    translationMemory.put(memoryKey, cleaned);
+                    return cleaned;
                 }
             }
         } catch (RestClientResponseException e) {
             String apiMessage = extractApiErrorMessage(e.getResponseBodyAsString());
-            int status = e.getStatusCode().value();
-            boolean quotaLike = status == 429
-                    || (apiMessage != null && apiMessage.toLowerCase().contains("quota"))
-                    || (apiMessage != null && apiMessage.toLowerCase().contains("rate limit"))
-                    || (apiMessage != null && apiMessage.toLowerCase().contains("exceeded"));
+            boolean quotaLike = isQuotaLike(e.getStatusCode().value(), apiMessage);
+            recordHttpError(CALL_TRANSLATE, permit, e.getStatusCode().value(), quotaLike);
             if (quotaLike) {
                 return text;
             }
             throw new RuntimeException("Translation failed: " + (apiMessage != null ? apiMessage : e.getStatusText()));
+        } catch (ResourceAccessException e) {
+            permit.failure(false);
+            metrics.geminiError(CALL_TRANSLATE, ERROR_IO);
+            throw new RuntimeException("Translation failed: " + e.getMessage());
         } catch (Exception e) {
+            metrics.geminiError(CALL_TRANSLATE, ERROR_PARSE);
             throw new RuntimeException("Translation failed: " + e.getMessage());
+        } finally {
+            permit.close();
         }
         return text;
     }
@@ -191,9 +609,14 @@ public class GeminiService {
     /**
      * Reformulate a JSON-derived draft into a natural, fluent response in the requested language
      * without adding new facts. If API key is missing or any error occurs, returns the original text.
+     * Results are kept in the translation memory, like {@link #translate}.
      */
     public String reformulate(String text, String preferredLanguage) {
         if (text == null || text.isBlank()) return text;
+        String language = preferredLanguage != null && preferredLanguage.equalsIgnoreCase("en") ? "en" : "fr";
+        String memoryKey = TranslationMemory.key(CALL_REFORMULATE, geminiModel, language, text);
+        String remembered = translationMemory.get(memoryKey);
+        if (remembered != null) return remembered;
         if (geminiApiKey == null || geminiApiKey.isBlank()) {
             return text;
         }
@@ -212,7 +635,8 @@ public class GeminiService {
 
         Map<String, Object> userContent = new HashMap<>();
         userContent.put("role", "user");
-        userContent.put("parts", List.of(Map.of("text", langInstr + "\n\nText:\n" + text)));
+        String userText = langInstr + "\n\nText:\n" + text;
+        userContent.put("parts", List.of(Map.of("text", userText)));
         body.put("contents", List.of(userContent));
 
         body.put("generationConfig", Map.of(
@@ -226,65 +650,110 @@ public class GeminiService {
         headers.add("x-goog-api-key", geminiApiKey);
 
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        CircuitBreaker.Permit permit = breaker.acquire();
+        if (permit == null) {
+            metrics.geminiError(CALL_REFORMULATE, ERROR_CIRCUIT_OPEN);
+            return text;
+        }
+        metrics.promptSize(CALL_REFORMULATE, systemPrompt.length() + userText.length());
         try {
             ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            metrics.geminiResponse(CALL_REFORMULATE, response.getStatusCode().value());
             if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                permit.failure(false);
                 return text;
             }
+            permit.success();
             JsonNode root = objectMapper.readTree(response.getBody());
+            metrics.tokens(CALL_REFORMULATE, root.path("usageMetadata"));
             JsonNode candidates = root.path("candidates");
             if (candidates.isArray() && candidates.size() > 0) {
                 JsonNode parts = candidates.get(0).path("content").path("parts");
                 if (parts.isArray() && parts.size() > 0) {
                     String rewritten = parts.get(0).path("text").asText();
                     String cleaned = cleanResponse(rewritten);
-                    return (cleaned != null && !cleaned.isBlank()) ? cleaned : text;
+                    if (cleaned == null || cleaned.isBlank()) return text;
+                    translationMemory.put(memoryKey, cleaned);
+                    return cleaned;
                 }
             }
-        } catch (Exception ignored) {
+        } catch (RestClientResponseException e) {
+            int status = e.getStatusCode().value();
+            recordHttpError(CALL_REFORMULATE, permit, status, isQuotaLike(status, extractApiErrorMessage(e.getResponseBodyAsString())));
+        } catch (ResourceAccessException e) {
+            permit.failure(false);
+            metrics.geminiError(CALL_REFORMULATE, ERROR_IO);
+        } catch (Exception e) {
+            metrics.geminiError(CALL_REFORMULATE, ERROR_PARSE);
+        } finally {
+            permit.close();
         }
         return text;
     }
 
-    private String cleanResponse(String text) {
-        if (text == null) return "";
-        String cleaned = text.trim();
-        
-        cleaned = cleaned.replaceFirst("(?is)^(?:[\\s\u00A0])*(bonjour|salut|bonsoir|hello|hi)(?:[\\s\u00A0])*[!.,]*((?:\r?\n)+)?", "");
-
-        String lower = cleaned.toLowerCase();
-        if (lower.startsWith("bonjour") || lower.startsWith("hello") || lower.startsWith("hi") || lower.startsWith("salut") || lower.startsWith("bonsoir")) {
-            String[] split = cleaned.split("\\R", 2);
-            cleaned = (split.length > 1) ? split[1].trim() : "";
+    // Same question modulo case, accents, punctuation and spacing, asked against the same context
+    private String replyKey(String userMessage, String contextText, String language) {
+        WordTokens words = WordTokens.of(CompanyQaService.normalize(userMessage));
+        StringBuilder question = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            if (i > 0) question.append(' ');
+            question.append(words.word(i));
+        }
+        String material = geminiModel + '\0' + language + '\0' + question + '\0' + (contextText == null ? "" : contextText);
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
         }
-        return cleaned.trim();
+    }
+
+    private boolean isQuotaLike(int status, String apiMessage) {
+        String message = apiMessage == null ? "" : apiMessage.toLowerCase();
+        return status == 429 || message.contains("quota") || message.contains("rate limit") || message.contains("exceeded");
+    }
+
+    // 5xx and quota errors count against the circuit; other 4xx mean Gemini itself is up
+    private void recordHttpError(String call, CircuitBreaker.Permit permit, int status, boolean quotaLike) {
+        metrics.geminiResponse(call, status);
+        metrics.geminiError(call, ERROR_HTTP);
+        if (quotaLike) metrics.quotaHit(call);
+        if (quotaLike || status >= 500) permit.failure(quotaLike);
+        else permit.success();
+    }
+
+    // Characters of the system instruction and user parts sent to Gemini
+    // Reply while the circuit is open, without touching the network
+    private String openCircuitReply(String call, String preferredLanguage) {
+        metrics.geminiError(call, ERROR_CIRCUIT_OPEN);
+        if (breaker.openForQuota()) return friendlyQuotaMessage(preferredLanguage);
+        throw new RuntimeException("Gemini is temporarily unavailable (circuit open).");
+    }
+
+    private boolean isCacheableReply(String reply) {
+        return !reply.equals(NO_RESPONSE)
+                && !reply.equals(EMPTY_RESPONSE)
+                && !reply.equals(UNEXPECTED_FORMAT)
+                && !reply.equals(friendlyQuotaMessage("en"))
+                && !reply.equals(friendlyQuotaMessage("fr"));
+    }
+
+    private String cleanResponse(String text) {
+        return GreetingStripper.strip(text);
     }
 
     private String inferLanguageInstruction(String userMessage) {
         if (userMessage == null) return "";
-        String q = userMessage.toLowerCase();
-        boolean english = containsAny(q,
-                "hello", "hi", "what", "where", "who", "when", "how", "address", "services", "projects",
-                "clients", "awards", "expertise", "overview", "about");
-        if (english) {
+        String language = languageClassifier.detect(userMessage);
+        if (LanguageClassifier.EN.equals(language)) {
             return "Please answer in English only. Do not greet; reply concisely and professionally.";
         }
-        boolean french = containsAny(q,
-                "bonjour", "salut", "adresse", "services", "projets", "clients", "récompenses", "recompenses",
-                "expertise", "à propos", "apropos", "apercu", "où", "ou", "qui", "quels", "quelles");
-        if (french) {
+        if (LanguageClassifier.FR.equals(language)) {
             return "Réponds uniquement en français. Ne salue pas; réponds de manière concise et professionnelle.";
         }
         return "Réponds dans la langue de la question (FR/EN). Ne salue pas; réponds de manière concise.";
     }
 
-    private boolean containsAny(String haystack, String... needles) {
-        for (String n : needles) {
-            if (haystack.contains(n)) return true;
-        }
-        return false;
-    }
-
     private String extractApiErrorMessage(String responseBody) {
         try {
             if (responseBody == null || responseBody.isBlank()) return null;
@@ -0,0 +1,112 @@
+package com.example.chatbot.service;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Drops a leading greeting ("Bonjour !", "Hello,\n") from model output.
+ * Works on complete replies and, through {@link #accept}, on a token stream: text is held
+ * back only until the start of the reply is known not to be (or to be done with) a greeting.
+ */
+final class GreetingStripper {
+
+    private static final Set<String> GREETINGS = Set.of("bonjour", "salut", "bonsoir", "hello", "hi");
+
+    private final StringBuilder pending = new StringBuilder();
+    private boolean passThrough;
+
+    static String strip(String text) {
+        if (text == null) return "";
+        return text.substring(contentStart(text, true)).trim();
+    }
+
+    /**
+     * Next piece of the stream to forward; empty while the beginning is still undecided.
+     */
+    String accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) return "";
+        if (passThrough) return chunk;
+        pending.append(chunk);
+        int start = contentStart(pending, false);
+        if (start < 0) return "";
+        passThrough = true;
+        String out = pending.substring(start);
+        pending.setLength(0);
+        return out;
+    }
+
+    /**
+     * Whatever is still held back once the stream has ended.
+     */
+    String finish() {
+        if (passThrough) return "";
+        passThrough = true;
+        String out = pending.substring(contentStart(pending, true));
+        pending.setLength(0);
+        return out;
+    }
+
+    // Index where the reply proper starts, or -1 if more text is needed to tell
+    private static int contentStart(CharSequence s, boolean complete) {
+        int len = s.length();
+        int i = skipSpace(s, 0);
+        if (i == len) return complete ? len : -1;
+        int w = wordEnd(s, i);
+        if (!complete && w == len && greetingPrefix(s, i, w)) return -1;
+        if (!greeting(s, i, w)) return i;
+
+        i = skipSeparators(s, w);
+        if (i == len) return complete ? len : -1;
+        w = wordEnd(s, i);
+        if (!complete && w == len && greetingPrefix(s, i, w)) return -1;
+        if (!greeting(s, i, w)) return i;
+
+        // A second greeting ("Hello! Hi there,") takes its whole line with it
+        int nl = indexOf(s, '\n', w);
+        if (nl < 0) return complete ? len : -1;
+        i = skipSpace(s, nl + 1);
+        return i == len && !complete ? -1 : i;
+    }
+
+    private static boolean greeting(CharSequence s, int from, int to) {
+        return to > from && GREETINGS.contains(s.subSequence(from, to).toString().toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean greetingPrefix(CharSequence s, int from, int to) {
+        String word = s.subSequence(from, to).toString().toLowerCase(Locale.ROOT);
+        for (String g : GREETINGS) {
+            if (g.startsWith(word)) return true;
+        }
+        return false;
+    }
+
+    private static int wordEnd(CharSequence s, int i) {
+        while (i < s.length() && Character.isLetter(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipSpace(CharSequence s, int i) {
+        while (i < s.length() && isSpace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipSeparators(CharSequence s, int i) {
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (!isSpace(c) && c != '!' && c != '.' && c != ',') break;
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return Character.isWhitespace(c) || c == ' ';
+    }
+
+    private static int indexOf(CharSequence s, char c, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (s.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+}
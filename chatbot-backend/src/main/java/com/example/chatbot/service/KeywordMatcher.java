@@ -0,0 +1,201 @@
+package com.example.chatbot.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick matcher over groups of keywords.
+ * Built once from every keyword list and alias, then scans a question a single time
+ * and reports which keywords occur in it (same semantics as {@link String#contains}).
+ */
+final class KeywordMatcher {
+
+    private static final int[] NO_PATTERNS = new int[0];
+
+    private final String[] patterns;
+    private final Map<String, int[]> groups;
+    private final short[] charClass;
+    private final int alphabetSize;
+    private final int[] delta;
+    private final int[][] outputs;
+
+    private KeywordMatcher(String[] patterns, Map<String, int[]> groups, short[] charClass, int alphabetSize,
+                           int[] delta, int[][] outputs) {
+        this.patterns = patterns;
+        this.groups = groups;
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.delta = delta;
+        this.outputs = outputs;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Scan the text once and return every keyword hit with its position.
+     */
+    Hits scan(String text) {
+        boolean[] matched = new boolean[patterns.length];
+        List<Hit> hits = new ArrayList<>();
+        if (text != null) {
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                state = delta[state * alphabetSize + charClass[text.charAt(i)]];
+                for (int p : outputs[state]) {
+                    matched[p] = true;
+                    hits.add(new Hit(patterns[p], i + 1 - patterns[p].length(), i + 1));
+                }
+            }
+        }
+        return new Hits(matched, hits);
+    }
+
+    /**
+     * Keyword occurrence in a scanned text; {@code end} is exclusive.
+     */
+    record Hit(String keyword, int start, int end) {
+    }
+
+    /**
+     * Result of a single scan, queried by group name.
+     */
+    final class Hits {
+        private final boolean[] matched;
+        private final List<Hit> hits;
+
+        private Hits(boolean[] matched, List<Hit> hits) {
+            this.matched = matched;
+            this.hits = Collections.unmodifiableList(hits);
+        }
+
+        boolean any(String group) {
+            for (int p : groups.getOrDefault(group, NO_PATTERNS)) {
+                if (matched[p]) return true;
+            }
+            return false;
+        }
+
+        // Number of distinct keywords of the group found in the text
+        int count(String group) {
+            int n = 0;
+            for (int p : groups.getOrDefault(group, NO_PATTERNS)) {
+                if (matched[p]) n++;
+            }
+            return n;
+        }
+
+        // Whether a keyword of the group occurs starting at or after the given offset
+        boolean anyFrom(String group, int offset) {
+            if (!any(group)) return false;
+            int[] ids = groups.get(group);
+            for (Hit h : hits) {
+                if (h.start() < offset) continue;
+                for (int p : ids) {
+                    if (patterns[p].equals(h.keyword())) return true;
+                }
+            }
+            return false;
+        }
+
+        List<Hit> all() {
+            return hits;
+        }
+    }
+
+    static final class Builder {
+        private final Map<String, Integer> patternIds = new LinkedHashMap<>();
+        private final Map<String, List<Integer>> groupPatterns = new LinkedHashMap<>();
+
+        Builder add(String group, String... keywords) {
+            List<Integer> ids = groupPatterns.computeIfAbsent(group, g -> new ArrayList<>());
+            for (String k : keywords) {
+                if (k == null || k.isEmpty()) continue;
+                // Scanned texts are folded (CompanyQaService.normalize), so keywords are too
+                k = TextFold.fold(k);
+                Integer id = patternIds.computeIfAbsent(k, x -> patternIds.size());
+                if (!ids.contains(id)) ids.add(id);
+            }
+            return this;
+        }
+
+        KeywordMatcher build() {
+            String[] patterns = patternIds.keySet().toArray(new String[0]);
+
+            // Compact alphabet: class 0 is "any character not used by a keyword"
+            short[] charClass = new short[Character.MAX_VALUE + 1];
+            int alphabetSize = 1;
+            for (String p : patterns) {
+                for (int i = 0; i < p.length(); i++) {
+                    char c = p.charAt(i);
+                    if (charClass[c] == 0) charClass[c] = (short) alphabetSize++;
+                }
+            }
+
+            // 1) Trie
+            List<Map<Integer, Integer>> trie = new ArrayList<>();
+            List<List<Integer>> out = new ArrayList<>();
+            trie.add(new HashMap<>());
+            out.add(new ArrayList<>());
+            for (int id = 0; id < patterns.length; id++) {
+                int state = 0;
+                String p = patterns[id];
+                for (int i = 0; i < p.length(); i++) {
+                    int c = charClass[p.charAt(i)];
+                    Integer next = trie.get(state).get(c);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.add(new HashMap<>());
+                        out.add(new ArrayList<>());
+                        trie.get(state).put(c, next);
+                    }
+                    state = next;
+                }
+                out.get(state).add(id);
+            }
+
+            // 2) Failure links, breadth-first, folded into a full transition table
+            int states = trie.size();
+            int[] delta = new int[states * alphabetSize];
+            int[] fail = new int[states];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < alphabetSize; c++) {
+                Integer next = trie.get(0).get(c);
+                if (next != null) {
+                    delta[c] = next;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                out.get(s).addAll(out.get(fail[s]));
+                for (int c = 0; c < alphabetSize; c++) {
+                    Integer next = trie.get(s).get(c);
+                    if (next != null) {
+                        fail[next] = delta[fail[s] * alphabetSize + c];
+                        delta[s * alphabetSize + c] = next;
+                        queue.add(next);
+                    } else {
+                        delta[s * alphabetSize + c] = delta[fail[s] * alphabetSize + c];
+                    }
+                }
+            }
+
+            int[][] outputs = new int[states][];
+            for (int s = 0; s < states; s++) {
+                List<Integer> o = out.get(s);
+                outputs[s] = o.isEmpty() ? NO_PATTERNS : o.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            Map<String, int[]> groups = new HashMap<>();
+            groupPatterns.forEach((g, ids) -> groups.put(g, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return new KeywordMatcher(patterns, groups, charClass, alphabetSize, delta, outputs);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.chatbot.service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * What a {@link KnowledgeSnapshot} is indexed from: the bound company data, the autocomplete
+ * subjects and the retrieval chunks of one data.json. Written at build time by the
+ * KnowledgeCodegen tool (src/build/java) into the constants of GeneratedKnowledge, or parsed at
+ * runtime when chatbot.data.override is on.
+ */
+record KnowledgeContent(CompanyKnowledge company, List<String> subjects, List<ChunkIndex.Chunk> chunks, String source) {
+
+    static final String GENERATED_CLASS = "com.example.chatbot.service.GeneratedKnowledge";
+
+    /**
+     * The content generated from the build's data.json, or null when the class is absent
+     * (sources compiled without the Maven generate-sources step, e.g. by an IDE).
+     */
+    @SuppressWarnings("unchecked")
+    static KnowledgeContent generated() {
+        Class<?> type;
+        try {
+            type = Class.forName(GENERATED_CLASS);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return ((Supplier<KnowledgeContent>) type.getDeclaredConstructor().newInstance()).get();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + GENERATED_CLASS, e);
+        }
+    }
+}
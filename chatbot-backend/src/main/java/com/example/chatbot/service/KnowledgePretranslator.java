@@ -0,0 +1,100 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline command that fills the translation memory with the English version of every French
+ * text of data.json that has no "_en" counterpart, then exits:
+ * <pre>java -jar chatbot-backend.jar --chatbot.pretranslate=true --spring.main.web-application-type=none</pre>
+ * Texts already in the memory cost nothing, so the command can be re-run after editing data.json.
+ * The memory is only read by {@link GeminiService#translate} and {@link GeminiService#reformulate};
+ * no request path calls them, so English answers still come from the "_en" fields and these
+ * entries are not served until a caller does.
+ */
+@Component
+@ConditionalOnProperty(name = "chatbot.pretranslate", havingValue = "true")
+public class KnowledgePretranslator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(KnowledgePretranslator.class);
+
+    // Descriptive French fields; ids, urls, places and categories stay as they are
+    private static final Set<String> FIELDS = Set.of("apropos", "apercu", "description", "type", "titre", "bio");
+    // Names are proper nouns, except service and expertise names
+    private static final Set<String> NAMED_SECTIONS = Set.of("services", "expertise_principale", "details");
+
+    private final CompanyQaService companyQaService;
+    private final GeminiService geminiService;
+    private final ConfigurableApplicationContext context;
+
+    public KnowledgePretranslator(CompanyQaService companyQaService, GeminiService geminiService, ConfigurableApplicationContext context) {
+        this.companyQaService = companyQaService;
+        this.geminiService = geminiService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        JsonNode root = companyQaService.readDataJson();
+        Set<String> texts = new LinkedHashSet<>();
+        if (root != null) collect(root.path("data"), null, texts);
+
+        int unchanged = 0;
+        int failed = 0;
+        for (String text : texts) {
+            try {
+                if (geminiService.translate(text, "en").equals(text)) unchanged++;
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Pretranslation of \"{}\" failed: {}", abbreviate(text), e.getMessage());
+            }
+        }
+        log.info("Pretranslation: {} distinct data.json texts, {} failed, {} returned unchanged (quota, missing key or already English)",
+                texts.size(), failed, unchanged);
+        int exitCode = failed == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= 40 ? text : text.substring(0, 40) + "…";
+    }
+
+    /**
+     * French texts under {@code node} without an "_en" sibling, in document order.
+     */
+    static void collect(JsonNode node, String section, Collection<String> out) {
+        if (node.isArray()) {
+            for (JsonNode item : node) collect(item, section, out);
+            return;
+        }
+        if (!node.isObject()) return;
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            if (value.isContainerNode()) {
+                // data.subjects already carries answer_fr / answer_en pairs
+                if (!name.equals("subjects")) collect(value, name, out);
+                continue;
+            }
+            boolean translatable = FIELDS.contains(name) || (name.equals("nom") && NAMED_SECTIONS.contains(section));
+            if (translatable && value.isTextual() && !value.asText().isBlank() && !node.hasNonNull(name + "_en")) {
+                out.add(value.asText());
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * data.schema.json, checked with the subset of JSON Schema it uses: type, required, properties,
+ * additionalProperties, dependentRequired, items, minItems, minLength, minimum and maximum.
+ * KnowledgeCodegen runs it on the build's data.json, CompanyQaService on a runtime reload.
+ */
+final class KnowledgeSchema {
+
+    static final String RESOURCE = "data.schema.json";
+
+    private final JsonNode schema;
+
+    private KnowledgeSchema(JsonNode schema) {
+        this.schema = schema;
+    }
+
+    static KnowledgeSchema read(InputStream in) throws IOException {
+        return new KnowledgeSchema(new ObjectMapper().readTree(in));
+    }
+
+    static KnowledgeSchema classpath() {
+        try (InputStream in = KnowledgeSchema.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) throw new IllegalStateException("classpath:" + RESOURCE + " not found");
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("classpath:" + RESOURCE, e);
+        }
+    }
+
+    /**
+     * Every violation as "/json/pointer: problem", in document order; empty when the tree is valid.
+     */
+    List<String> validate(JsonNode instance) {
+        List<String> errors = new ArrayList<>();
+        check(schema, instance, "", errors);
+        return errors;
+    }
+
+    private static void check(JsonNode s, JsonNode v, String path, List<String> errors) {
+        JsonNode type = s.path("type");
+        if (!type.isMissingNode() && !hasType(type, v)) {
+            errors.add(at(path) + ": expected " + (type.isArray() ? join(type) : type.asText()) + ", found " + kind(v));
+            return;
+        }
+        if (v.isObject()) {
+            for (JsonNode name : s.path("required")) {
+                if (!v.has(name.asText())) errors.add(at(path) + ": missing \"" + name.asText() + "\"");
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> it = s.path("dependentRequired").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> e = it.next();
+                if (!v.has(e.getKey())) continue;
+                for (JsonNode name : e.getValue()) {
+                    if (!v.has(name.asText())) errors.add(at(path) + ": \"" + e.getKey() + "\" requires \"" + name.asText() + "\"");
+                }
+            }
+            JsonNode additional = s.path("additionalProperties");
+            for (Iterator<Map.Entry<String, JsonNode>> it = v.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> e = it.next();
+                String child = path + "/" + e.getKey();
+                JsonNode declared = s.path("properties").get(e.getKey());
+                if (declared != null) {
+                    check(declared, e.getValue(), child, errors);
+                } else if (additional.isObject()) {
+                    check(additional, e.getValue(), child, errors);
+                } else if (additional.isBoolean() && !additional.asBoolean()) {
+                    errors.add(at(child) + ": unexpected property");
+                }
+            }
+        } else if (v.isArray()) {
+            if (s.has("minItems") && v.size() < s.get("minItems").asInt()) {
+                errors.add(at(path) + ": fewer than " + s.get("minItems").asInt() + " items");
+            }
+            JsonNode items = s.path("items");
+            if (items.isObject()) {
+                for (int i = 0; i < v.size(); i++) check(items, v.get(i), path + "/" + i, errors);
+            }
+        } else if (v.isTextual()) {
+            String text = v.asText();
+            if (s.has("minLength") && text.codePointCount(0, text.length()) < s.get("minLength").asInt()) {
+                errors.add(at(path) + ": shorter than " + s.get("minLength").asInt() + " characters");
+            }
+        } else if (v.isNumber()) {
+            if (s.has("minimum") && v.asDouble() < s.get("minimum").asDouble()) {
+                errors.add(at(path) + ": below " + s.get("minimum").asText());
+            }
+            if (s.has("maximum") && v.asDouble() > s.get("maximum").asDouble()) {
+                errors.add(at(path) + ": above " + s.get("maximum").asText());
+            }
+        }
+    }
+
+    private static boolean hasType(JsonNode type, JsonNode v) {
+        if (type.isArray()) {
+            for (JsonNode t : type) {
+                if (hasType(t, v)) return true;
+            }
+            return false;
+        }
+        return switch (type.asText()) {
+            case "object" -> v.isObject();
+            case "array" -> v.isArray();
+            case "string" -> v.isTextual();
+            case "integer" -> v.isIntegralNumber();
+            case "number" -> v.isNumber();
+            case "boolean" -> v.isBoolean();
+            case "null" -> v.isNull();
+            default -> throw new IllegalArgumentException("Unsupported schema type: " + type.asText());
+        };
+    }
+
+    private static String kind(JsonNode v) {
+        if (v.isIntegralNumber()) return "integer";
+        return v.getNodeType().name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String join(JsonNode types) {
+        List<String> names = new ArrayList<>();
+        for (JsonNode t : types) names.add(t.asText());
+        return String.join(" or ", names);
+    }
+
+    private static String at(String path) {
+        return path.isEmpty() ? "/" : path;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.chatbot.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Everything derived from one load of data.json. Built off the request path and
+ * published as a whole, so a request always sees a single consistent version.
+ * {@code company} is null when the file has no "data" object; {@code subjectsETag} is a
+ * content hash of the subject list, so it only changes when the subjects do.
+ */
+public record KnowledgeSnapshot(
+        CompanyKnowledge company,
+        KeywordMatcher matcher,
+        AnswerTable answers,
+        ChunkIndex chunks,
+        List<String> subjects,
+        SubjectTrie subjectTrie,
+        String subjectsETag,
+        String source,
+        Instant loadedAt) {
+}
@@ -0,0 +1,196 @@
+package com.example.chatbot.service;
+
+import com.github.pemistahl.lingua.api.Language;
+import com.github.pemistahl.lingua.api.LanguageDetector;
+import com.github.pemistahl.lingua.api.LanguageDetectorBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FR/EN classifier shared by the session, Q&A and Gemini code paths.
+ * The fast path is a single pass over the characters: each word is hashed as it is read
+ * (lower-cased char by char) and looked up in a small open-addressed table of weighted
+ * FR/EN marker words; French accents add to the FR score. No regex, no substring, no allocation.
+ * Only when the scores tie does it ask lingua, built lazily with just the FR and EN models.
+ */
+@Component
+public class LanguageClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(LanguageClassifier.class);
+
+    public static final String EN = "en";
+    public static final String FR = "fr";
+
+    private static final int ACCENT_WEIGHT = 2;
+
+    // Strong markers (question words, greetings, pronouns) weigh 2, topical words 1
+    private static final String[][] EN_WORDS = {
+            {"what", "who", "where", "when", "how", "why", "which", "hello", "hi", "hey", "thanks", "the", "you", "your",
+                    "is", "are", "do", "does", "can", "tell"},
+            {"and", "of", "in", "to", "for", "with", "about", "overview", "address", "company", "projects", "awards",
+                    "customer", "customers", "leader", "director", "achievement", "achievements", "offer", "provided",
+                    "me", "our", "since", "contact"}
+    };
+    private static final String[][] FR_WORDS = {
+            {"quoi", "qui", "où", "quand", "comment", "pourquoi", "quel", "quels", "quelle", "quelles", "bonjour",
+                    "salut", "bonsoir", "merci", "vous", "nous", "est", "sont"},
+            {"le", "la", "les", "des", "du", "de", "et", "ou", "pour", "avec", "sur", "dans", "vos", "votre", "nos",
+                    "notre", "adresse", "entreprise", "société", "societe", "projet", "projets", "récompense",
+                    "récompenses", "recompenses", "réalisation", "réalisations", "direction", "dirige", "présentation",
+                    "présentez", "propos", "apropos", "aperçu", "apercu", "depuis", "secteur"}
+    };
+
+    private static final int TABLE_SIZE = 256; // power of two, well above the word count
+    private static final String[] KEYS = new String[TABLE_SIZE];
+    private static final int[] HASHES = new int[TABLE_SIZE];
+    private static final byte[] EN_WEIGHT = new byte[TABLE_SIZE];
+    private static final byte[] FR_WEIGHT = new byte[TABLE_SIZE];
+
+    static {
+        for (int strength = 0; strength < 2; strength++) {
+            for (String w : EN_WORDS[strength]) EN_WEIGHT[slot(w)] = (byte) (2 - strength);
+            for (String w : FR_WORDS[strength]) FR_WEIGHT[slot(w)] = (byte) (2 - strength);
+        }
+    }
+
+    private final boolean linguaFallback;
+    private volatile LanguageDetector lingua;
+    // A lock, not a monitor: the first tie builds the models, and virtual threads waiting on it must not pin
+    private final ReentrantLock linguaLock = new ReentrantLock();
+
+    public LanguageClassifier(@Value("${chatbot.language.lingua-fallback:true}") boolean linguaFallback) {
+        this.linguaFallback = linguaFallback;
+    }
+
+    /**
+     * "en" or "fr", or null when neither the markers nor lingua can tell.
+     */
+    public String detect(String text) {
+        String language = detectByMarkers(text);
+        if (language != null || text == null || text.isEmpty()) return language;
+        return linguaFallback ? detectWithLingua(text) : null;
+    }
+
+    /**
+     * Fast path only: "en" or "fr" when marker words or accents decide, otherwise null.
+     */
+    public String detectByMarkers(String text) {
+        if (text == null || text.isEmpty()) return null;
+        int score = score(text);
+        return score > 0 ? EN : score < 0 ? FR : null;
+    }
+
+    public String detectOrDefault(String text, String fallback) {
+        String language = detect(text);
+        return language != null ? language : fallback;
+    }
+
+    /**
+     * English if detected as such; undecided messages count as French, the site's default.
+     */
+    public boolean isEnglish(String text) {
+        return EN.equals(detect(text));
+    }
+
+    /**
+     * EN score minus FR score from the marker words and accents; 0 means undecided.
+     */
+    static int score(CharSequence text) {
+        int en = 0;
+        int fr = 0;
+        boolean accent = false;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (!Character.isLetter(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int h = 0;
+            while (i < n) {
+                c = Character.toLowerCase(text.charAt(i));
+                if (!Character.isLetter(c)) break;
+                if (!accent && isFrenchAccent(c)) accent = true;
+                h = 31 * h + c;
+                i++;
+            }
+            int s = find(text, start, i, h);
+            if (s >= 0) {
+                en += EN_WEIGHT[s];
+                fr += FR_WEIGHT[s];
+            }
+        }
+        if (accent) fr += ACCENT_WEIGHT;
+        return en - fr;
+    }
+
+    private String detectWithLingua(String text) {
+        try {
+            Language language = linguaDetector().detectLanguageOf(text);
+            if (language == Language.ENGLISH) return EN;
+            if (language == Language.FRENCH) return FR;
+        } catch (RuntimeException | LinkageError e) {
+            log.debug("lingua fallback failed: {}", e.toString());
+        }
+        return null;
+    }
+
+    private LanguageDetector linguaDetector() {
+        LanguageDetector detector = lingua;
+        if (detector == null) {
+            linguaLock.lock();
+            try {
+                detector = lingua;
+                if (detector == null) {
+                    detector = LanguageDetectorBuilder.fromLanguages(Language.ENGLISH, Language.FRENCH)
+                            .withMinimumRelativeDistance(0.1)
+                            .build();
+                    lingua = detector;
+                    log.info("lingua FR/EN detector loaded");
+                }
+            } finally {
+                linguaLock.unlock();
+            }
+        }
+        return detector;
+    }
+
+    private static boolean isFrenchAccent(char c) {
+        switch (c) {
+            case 'é', 'è', 'ê', 'ë', 'à', 'â', 'ù', 'û', 'î', 'ï', 'ô', 'ç', 'œ':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Table slot holding text[from, to) (compared lower-cased), or -1
+    private static int find(CharSequence text, int from, int to, int hash) {
+        int len = to - from;
+        for (int s = hash & (TABLE_SIZE - 1); KEYS[s] != null; s = (s + 1) & (TABLE_SIZE - 1)) {
+            String key = KEYS[s];
+            if (HASHES[s] != hash || key.length() != len) continue;
+            boolean same = true;
+            for (int j = 0; j < len && same; j++) {
+                same = Character.toLowerCase(text.charAt(from + j)) == key.charAt(j);
+            }
+            if (same) return s;
+        }
+        return -1;
+    }
+
+    private static int slot(String word) {
+        int hash = word.hashCode();
+        int s = hash & (TABLE_SIZE - 1);
+        while (KEYS[s] != null && !KEYS[s].equals(word)) s = (s + 1) & (TABLE_SIZE - 1);
+        KEYS[s] = word;
+        HASHES[s] = hash;
+        return s;
+    }
+}
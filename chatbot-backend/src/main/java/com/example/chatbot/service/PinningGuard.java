@@ -0,0 +1,86 @@
+package com.example.chatbot.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In virtual-thread mode, reports virtual threads that stay pinned to their carrier
+ * (blocking inside synchronized or native code) via the JFR jdk.VirtualThreadPinned event.
+ * Pinning in our own call path, e.g. around GeminiService's HTTP calls, is logged as a warning
+ * with the offending frames; pinning elsewhere only at debug level.
+ */
+@Component
+public class PinningGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(PinningGuard.class);
+    private static final String APP_PACKAGE = "com.example.chatbot.";
+    private static final int MAX_FRAMES = 12;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${chatbot.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private final AtomicLong pinnedInApp = new AtomicLong();
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        if (!virtualThreads) return;
+        try {
+            stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", this::report);
+            stream.startAsync();
+            log.info("Virtual-thread pinning guard active (threshold {} ms)", thresholdMs);
+        } catch (RuntimeException e) {
+            log.warn("Virtual-thread pinning guard unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+
+    /**
+     * Pinning events seen in application code since startup.
+     */
+    public long pinnedInApp() {
+        return pinnedInApp.get();
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stack = event.getStackTrace();
+        if (stack == null) return;
+        boolean inApp = false;
+        StringBuilder frames = new StringBuilder();
+        int shown = 0;
+        for (RecordedFrame frame : stack.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APP_PACKAGE)) inApp = true;
+            if (shown++ < MAX_FRAMES) {
+                frames.append("\n\tat ").append(type).append('.').append(frame.getMethod().getName())
+                        .append(':').append(frame.getLineNumber());
+            }
+        }
+        if (inApp) {
+            pinnedInApp.incrementAndGet();
+            log.warn("Virtual thread pinned for {} ms in application code{}", event.getDuration().toMillis(), frames);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.chatbot.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache with a time-to-live for Gemini replies.
+ * Concurrent misses on the same key share one upstream call; replies rejected by the
+ * {@code cacheable} predicate (quota and error messages) are handed to the waiting callers but never stored.
+ * State is guarded by a {@link ReentrantLock} rather than {@code synchronized}: callers may be virtual
+ * threads, which a contended monitor would pin. The other locked stores of this package do the same.
+ */
+final class ReplyCache {
+
+    record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ReplyCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    ReplyCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    boolean enabled() {
+        return maxEntries > 0 && ttlNanos > 0;
+    }
+
+    String get(String key, Supplier<String> loader, Predicate<String> cacheable) {
+        if (!enabled()) return loader.get();
+
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader);
+        }
+        try {
+            String value = loader.get();
+            if (value != null && cacheable.test(value)) store(key, value);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Cached reply without loading on a miss; used by the streaming path, which fills the cache itself.
+     */
+    String getIfPresent(String key) {
+        if (!enabled()) return null;
+        String cached = lookup(key);
+        if (cached != null) hits.increment();
+        else misses.increment();
+        return cached;
+    }
+
+    void put(String key, String value) {
+        if (enabled() && value != null) store(key, value);
+    }
+
+    Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String lookup(String key) {
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            Entry e = entries.get(key);
+            if (e == null) return null;
+            if (now - e.expiresAt() >= 0) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return e.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String key, String value) {
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            entries.put(key, new Entry(value, now + ttlNanos));
+            if (entries.size() <= maxEntries) return;
+            // Drop expired entries first, then least recently used ones
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext() && entries.size() > maxEntries) {
+                if (now - it.next().expiresAt() >= 0) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+            it = entries.values().iterator();
+            while (it.hasNext() && entries.size() > maxEntries) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String await(CompletableFuture<String> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
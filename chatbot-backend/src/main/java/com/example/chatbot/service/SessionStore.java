@@ -0,0 +1,147 @@
+package com.example.chatbot.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded conversation-id -> language store with idle expiry.
+ * Ids are spread over lock-striped segments, each an access-ordered map: the least recently
+ * used entry sits at the head, so expired entries are dropped from there on every write and
+ * the oldest entry is evicted when a segment is full. Memory stays flat however many ids the
+ * frontend mints.
+ */
+final class SessionStore {
+
+    private static final int SEGMENTS = 16;
+    // Rough retained size of one entry besides its key chars: map node, entry record, key String
+    private static final int ENTRY_OVERHEAD_BYTES = 120;
+
+    record Stats(int size, long estimatedBytes, long hits, long misses, long evictions, long expirations) {
+    }
+
+    private record Entry(String language, long lastAccess) {
+    }
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    SessionStore(int maxEntries, long idleTtlMillis) {
+        this(maxEntries, idleTtlMillis, System::nanoTime);
+    }
+
+    SessionStore(int maxEntries, long idleTtlMillis, LongSupplier clock) {
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(perSegment);
+        this.idleNanos = idleTtlMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    String get(String id) {
+        Segment s = segmentFor(id);
+        long now = clock.getAsLong();
+        s.lock.lock();
+        try {
+            Entry e = s.map.get(id);
+            if (e != null && expired(e, now)) {
+                s.map.remove(id);
+                expirations.increment();
+                e = null;
+            }
+            if (e == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            // Reading a conversation keeps it alive
+            s.map.put(id, new Entry(e.language(), now));
+            return e.language();
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    void put(String id, String language) {
+        Segment s = segmentFor(id);
+        long now = clock.getAsLong();
+        s.lock.lock();
+        try {
+            s.map.put(id, new Entry(language, now));
+            dropExpired(s, now);
+            Iterator<Entry> it = s.map.values().iterator();
+            while (s.map.size() > s.capacity && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    void remove(String id) {
+        Segment s = segmentFor(id);
+        s.lock.lock();
+        try {
+            s.map.remove(id);
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops expired entries in every segment and reports the resulting counters.
+     */
+    Stats stats() {
+        long now = clock.getAsLong();
+        int size = 0;
+        long bytes = 0;
+        for (Segment s : segments) {
+            s.lock.lock();
+            try {
+                dropExpired(s, now);
+                size += s.map.size();
+                for (String id : s.map.keySet()) bytes += ENTRY_OVERHEAD_BYTES + 2L * id.length();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return new Stats(size, bytes, hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private void dropExpired(Segment s, long now) {
+        Iterator<Entry> it = s.map.values().iterator();
+        while (it.hasNext()) {
+            if (!expired(it.next(), now)) break; // access order: the rest is more recent
+            it.remove();
+            expirations.increment();
+        }
+    }
+
+    private boolean expired(Entry e, long now) {
+        return idleNanos > 0 && now - e.lastAccess() >= idleNanos;
+    }
+
+    private Segment segmentFor(String id) {
+        int h = id.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+        final int capacity;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.chatbot.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Gemini replies reused across paraphrases of a question, per language and company context: the
+ * context sent with the question is hashed into the key, so a paraphrase that retrieves other
+ * chunks, or the same question after a knowledge reload, never gets a reply built on other facts.
+ * A question is fingerprinted with a 64-bit SimHash of its folded, stemmed terms (stopwords
+ * dropped) and their adjacent pairs; two questions match when the fingerprints differ in at most
+ * {@code maxDistance} bits. Fingerprints are split into {@code maxDistance + 1} bands, so any match
+ * shares at least one band exactly and a lookup only compares the entries of its band buckets.
+ * Bounded LRU with a time-to-live, like {@link ReplyCache}.
+ */
+final class SimilarReplyCache {
+
+    /** Largest accepted distance; beyond it unrelated short questions start to collide. */
+    static final int MAX_DISTANCE = 7;
+
+    record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    private record Key(String language, long context, long fingerprint) {
+    }
+
+    private record Bucket(String language, long context, int band, long bits) {
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final int maxDistance;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final int[] bandStarts;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Bucket, List<Key>> buckets = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    SimilarReplyCache(int maxEntries, int maxDistance, long ttlMillis) {
+        this(maxEntries, maxDistance, ttlMillis, System::nanoTime);
+    }
+
+    SimilarReplyCache(int maxEntries, int maxDistance, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.maxDistance = Math.max(0, Math.min(maxDistance, MAX_DISTANCE));
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.clock = clock;
+        int bands = this.maxDistance + 1;
+        this.bandStarts = new int[bands + 1];
+        for (int b = 0; b <= bands; b++) bandStarts[b] = b * 64 / bands;
+    }
+
+    boolean enabled() {
+        return maxEntries > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * Reply stored for the closest paraphrase of the question in that language and context, or null.
+     */
+    String get(String language, String context, String question) {
+        if (!enabled()) return null;
+        long fp = fingerprint(question);
+        if (fp == 0) return null;
+        long ctx = contextHash(context);
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            Key best = null;
+            int bestDistance = maxDistance + 1;
+            for (int b = 0; b + 1 < bandStarts.length; b++) {
+                List<Key> keys = buckets.get(bucket(language, ctx, b, fp));
+                if (keys == null) continue;
+                for (Key k : keys) {
+                    int d = Long.bitCount(k.fingerprint() ^ fp);
+                    if (d < bestDistance) {
+                        best = k;
+                        bestDistance = d;
+                    }
+                }
+            }
+            Entry e = best == null ? null : entries.get(best);
+            if (e != null && now - e.expiresAt() >= 0) {
+                remove(best);
+                evictions.increment();
+                e = null;
+            }
+            if (e == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return e.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(String language, String context, String question, String value) {
+        if (!enabled() || value == null) return;
+        long fp = fingerprint(question);
+        if (fp == 0) return;
+        Key key = new Key(language, contextHash(context), fp);
+        long now = clock.getAsLong();
+        lock.lock();
+        try {
+            if (entries.put(key, new Entry(value, now + ttlNanos)) == null) {
+                for (int b = 0; b + 1 < bandStarts.length; b++) {
+                    buckets.computeIfAbsent(bucket(key.language(), key.context(), b, fp), k -> new ArrayList<>(1)).add(key);
+                }
+            }
+            if (entries.size() <= maxEntries) return;
+            // Drop expired entries first, then least recently used ones
+            List<Key> evicted = new ArrayList<>();
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext() && entries.size() - evicted.size() > maxEntries) {
+                Map.Entry<Key, Entry> e = it.next();
+                if (now - e.getValue().expiresAt() >= 0) evicted.add(e.getKey());
+            }
+            it = entries.entrySet().iterator();
+            while (it.hasNext() && entries.size() - evicted.size() > maxEntries) {
+                Key k = it.next().getKey();
+                if (!evicted.contains(k)) evicted.add(k);
+            }
+            for (Key k : evicted) remove(k);
+            evictions.add(evicted.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            buckets.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * SimHash of the question's terms (weight 2) and adjacent term pairs (weight 1); 0 when it has no terms.
+     */
+    static long fingerprint(String question) {
+        List<String> terms = ChunkIndex.terms(question == null ? "" : question);
+        if (terms.isEmpty()) return 0;
+        int[] votes = new int[64];
+        for (int i = 0; i < terms.size(); i++) {
+            vote(votes, hash(terms.get(i)), 2);
+            if (i > 0) vote(votes, hash(terms.get(i - 1) + ' ' + terms.get(i)), 1);
+        }
+        long fp = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) fp |= 1L << bit;
+        }
+        return fp == 0 ? 1 : fp;
+    }
+
+    // The whole context text, hashed like a feature; an empty context is a context of its own
+    static long contextHash(String context) {
+        return context == null ? 0 : hash(context);
+    }
+
+    private static void vote(int[] votes, long h, int weight) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += (h >>> bit & 1) != 0 ? weight : -weight;
+        }
+    }
+
+    // FNV-1a with a murmur finalizer, so every bit depends on the whole feature
+    private static long hash(String feature) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            h ^= feature.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ h >>> 33;
+    }
+
+    private Bucket bucket(String language, long context, int band, long fp) {
+        int from = bandStarts[band];
+        int width = bandStarts[band + 1] - from;
+        return new Bucket(language, context, band, fp >>> from & (-1L >>> (64 - width)));
+    }
+
+    private void remove(Key key) {
+        if (entries.remove(key) == null) return;
+        for (int b = 0; b + 1 < bandStarts.length; b++) {
+            Bucket bucket = bucket(key.language(), key.context(), b, key.fingerprint());
+            List<Key> keys = buckets.get(bucket);
+            if (keys == null) continue;
+            keys.remove(key);
+            if (keys.isEmpty()) buckets.remove(bucket);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.chatbot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accent-insensitive prefix trie over the autocomplete subjects.
+ * Every subject is reachable from its folded text and from the start of each of its words
+ * ("cloud" completes "Marketing Cloud"). Each node keeps its best completions, ranked once at
+ * build time: whole-subject prefix matches first, then word matches, in subject order.
+ */
+final class SubjectTrie {
+
+    /** Most completions a node keeps, and so the largest limit {@link #suggest} honours. */
+    static final int MAX_COMPLETIONS = 20;
+
+    private static final int[] NONE = new int[0];
+
+    private final List<String> subjects;
+    private final Node root;
+
+    private SubjectTrie(List<String> subjects, Node root) {
+        this.subjects = subjects;
+        this.root = root;
+    }
+
+    static SubjectTrie build(List<String> subjects) {
+        Builder root = new Builder();
+        for (int i = 0; i < subjects.size(); i++) {
+            String folded = TextFold.fold(subjects.get(i));
+            root.insert(folded, 0, i, 0);
+            for (int at = 1; at < folded.length(); at++) {
+                if (!Character.isLetterOrDigit(folded.charAt(at - 1)) && Character.isLetterOrDigit(folded.charAt(at))) {
+                    root.insert(folded, at, i, 1);
+                }
+            }
+        }
+        return new SubjectTrie(List.copyOf(subjects), root.freeze());
+    }
+
+    /**
+     * Up to {@code limit} subjects completing the prefix (folded, leading blanks ignored);
+     * the first subjects for a blank prefix.
+     */
+    List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        String q = TextFold.fold(prefix == null ? "" : prefix.stripLeading());
+        for (int i = 0; i < q.length() && node != null; i++) {
+            node = node.child(q.charAt(i));
+        }
+        if (node == null || limit <= 0) return List.of();
+        int n = Math.min(limit, node.top.length);
+        List<String> out = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) out.add(subjects.get(node.top[k]));
+        return out;
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] keys, Node[] children, int[] top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+    }
+
+    // Mutable node while inserting; entries are {subject index, tier}
+    private static final class Builder {
+        private final Map<Character, Builder> children = new TreeMap<>();
+        private final List<int[]> entries = new ArrayList<>();
+
+        void insert(String key, int from, int subject, int tier) {
+            Builder node = this;
+            node.add(subject, tier);
+            for (int i = from; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+                node.add(subject, tier);
+            }
+        }
+
+        private void add(int subject, int tier) {
+            // A subject reaches a node through its best (lowest) tier only
+            for (int[] e : entries) {
+                if (e[0] == subject) {
+                    e[1] = Math.min(e[1], tier);
+                    return;
+                }
+            }
+            entries.add(new int[]{subject, tier});
+        }
+
+        Node freeze() {
+            int[] top = entries.stream()
+                    .sorted((a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(a[0], b[0]))
+                    .limit(MAX_COMPLETIONS)
+                    .mapToInt(e -> e[0])
+                    .toArray();
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> e : children.entrySet()) {
+                keys[i] = e.getKey();
+                nodes[i++] = e.getValue().freeze();
+            }
+            return new Node(keys, nodes, top.length == 0 ? NONE : top);
+        }
+    }
+}
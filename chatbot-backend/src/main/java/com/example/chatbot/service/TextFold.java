@@ -0,0 +1,74 @@
+package com.example.chatbot.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Lower-casing and accent folding in one pass over the characters ("Où ÊTES" -> "ou etes").
+ * Latin-1 and Latin Extended-A go through a lookup table built once from the NFD decomposition,
+ * so they fold exactly like the former Normalizer + regex version; stray combining marks are
+ * dropped and any other character is only lower-cased. Ligatures (œ, æ, ß) are kept as is.
+ */
+final class TextFold {
+
+    private static final int TABLE_END = 0x180; // end of Latin Extended-A
+    private static final char[] TABLE = new char[TABLE_END];
+
+    static {
+        for (char c = 0; c < TABLE_END; c++) {
+            String lower = String.valueOf(c).toLowerCase(Locale.ROOT);
+            String base = Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+            TABLE[c] = base.length() == 1 ? base.charAt(0) : lower.length() == 1 ? lower.charAt(0) : c;
+        }
+    }
+
+    private TextFold() {
+    }
+
+    /**
+     * Folded copy of the text, or the text itself when folding changes nothing.
+     */
+    static String fold(String s) {
+        return s == null ? "" : fold(s, 0, s.length());
+    }
+
+    /**
+     * Folded text with leading and trailing whitespace removed, as questions are compared.
+     */
+    static String foldTrimmed(String s) {
+        if (s == null) return "";
+        int from = 0;
+        int to = s.length();
+        while (from < to && s.charAt(from) <= ' ') from++;
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        return fold(s, from, to);
+    }
+
+    private static String fold(String s, int from, int to) {
+        // Most questions and keywords are already folded: find the first char that changes
+        int i = from;
+        while (i < to && map(s.charAt(i)) == s.charAt(i)) i++;
+        if (i == to) return from == 0 && to == s.length() ? s : s.substring(from, to);
+
+        char[] out = new char[to - from];
+        s.getChars(from, i, out, 0);
+        int n = i - from;
+        for (; i < to; i++) {
+            char c = s.charAt(i);
+            if (isCombiningMark(c)) continue;
+            out[n++] = map(c);
+        }
+        return new String(out, 0, n);
+    }
+
+    // Folded char, or 0 for a combining mark
+    private static char map(char c) {
+        if (c < TABLE_END) return TABLE[c];
+        if (isCombiningMark(c)) return 0;
+        return Character.toLowerCase(c);
+    }
+
+    private static boolean isCombiningMark(char c) {
+        return c >= 0x300 && c <= 0x36F;
+    }
+}
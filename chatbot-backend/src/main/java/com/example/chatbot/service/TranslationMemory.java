@@ -0,0 +1,178 @@
+package com.example.chatbot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Results of translate and reformulate kept across restarts, keyed by a SHA-256 of
+ * (operation, model, target language, source text).
+ * The file is append-only and memory-mapped: a header, then records of
+ * {@code [int length][int crc32][32-byte key][UTF-8 text]}. The mapping grows by doubling and the
+ * unused tail stays zero, so a zero length, a bad checksum or a torn last record ends the scan.
+ * Every record is loaded into memory when the file is opened; lookups never touch the file.
+ */
+final class TranslationMemory implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TranslationMemory.class);
+
+    private static final byte[] MAGIC = {'G', 'T', 'M', '1'};
+    private static final int KEY_BYTES = 32;
+    private static final int RECORD_HEADER = 8 + KEY_BYTES;
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int end;
+
+    private TranslationMemory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens (or creates) the memory file and loads it; a null path gives a memory that keeps nothing.
+     * A file that cannot be opened is logged and disables persistence rather than failing startup.
+     */
+    static TranslationMemory open(Path file) {
+        TranslationMemory memory = new TranslationMemory(file);
+        if (file == null) return memory;
+        try {
+            memory.load();
+            if (!memory.entries.isEmpty()) log.info("Translation memory: {} entries from {}", memory.entries.size(), file);
+        } catch (IOException e) {
+            log.warn("Translation memory disabled, cannot use {}: {}", file, e.getMessage());
+            memory.close();
+        }
+        return memory;
+    }
+
+    boolean persistent() {
+        return channel != null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static String key(String operation, String model, String language, String text) {
+        String material = operation + '\0' + model + '\0' + language + '\0' + text;
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    String get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Keeps the result in memory and appends it to the file; a key already present is not rewritten.
+     * An empty value is not kept: its zero-length record would read as the end of the log and hide
+     * every record after it. A failed append is logged, not thrown.
+     */
+    void put(String key, String value) {
+        if (value == null || value.isEmpty() || entries.putIfAbsent(key, value) != null) return;
+        lock.lock();
+        try {
+            if (channel == null) return;
+            byte[] text = value.getBytes(StandardCharsets.UTF_8);
+            byte[] keyBytes = HexFormat.of().parseHex(key);
+            ensureCapacity(RECORD_HEADER + text.length);
+            CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            crc.update(text);
+            // Length last, so a crash mid-write leaves a zero length that ends the scan
+            map.putInt(end + 4, (int) crc.getValue());
+            map.put(end + 8, keyBytes);
+            map.put(end + RECORD_HEADER, text);
+            map.putInt(end, text.length);
+            end += RECORD_HEADER + text.length;
+        } catch (IOException e) {
+            // Still served from memory until the next restart
+            log.warn("Cannot append to translation memory {}: {}", file, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (map != null) map.force();
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            log.warn("Cannot close translation memory {}: {}", file, e.getMessage());
+        } finally {
+            map = null;
+            channel = null;
+            lock.unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) throw new IOException("file too large");
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_SIZE));
+        if (size == 0) {
+            map.put(0, MAGIC);
+            end = MAGIC.length;
+            return;
+        }
+        byte[] magic = new byte[MAGIC.length];
+        map.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) throw new IOException("not a translation memory file");
+
+        int at = MAGIC.length;
+        byte[] keyBytes = new byte[KEY_BYTES];
+        while (at + RECORD_HEADER <= map.capacity()) {
+            int length = map.getInt(at);
+            if (length <= 0 || length > map.capacity() - at - RECORD_HEADER) break;
+            byte[] text = new byte[length];
+            map.get(at + 8, keyBytes);
+            map.get(at + RECORD_HEADER, text);
+            CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            crc.update(text);
+            if ((int) crc.getValue() != map.getInt(at + 4)) break;
+            entries.put(HexFormat.of().formatHex(keyBytes), new String(text, StandardCharsets.UTF_8));
+            at += RECORD_HEADER + length;
+        }
+        end = at;
+        // Anything after the last good record is overwritten by the next append
+        for (int i = end; i < Math.min(end + RECORD_HEADER, map.capacity()); i++) map.put(i, (byte) 0);
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (end + bytes <= map.capacity()) return;
+        long next = map.capacity();
+        while (end + bytes > next) next *= 2;
+        if (next > Integer.MAX_VALUE) throw new IOException("translation memory full");
+        map.force();
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, next);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.chatbot.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Word spans of a (normalized) question, split once per request.
+ * A word is a run of letters (accented letters included) or a run of digits,
+ * so membership queries replace the old per-call word-boundary regexes.
+ */
+final class WordTokens {
+
+    private final String text;
+    private final int[] starts;
+    private final int[] ends;
+    private final int size;
+    private final Set<String> words;
+
+    private WordTokens(String text, int[] starts, int[] ends, int size, Set<String> words) {
+        this.text = text;
+        this.starts = starts;
+        this.ends = ends;
+        this.size = size;
+        this.words = words;
+    }
+
+    static WordTokens of(String text) {
+        if (text == null) text = "";
+        int n = text.length();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        Set<String> words = new HashSet<>();
+        int size = 0;
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            boolean letter = Character.isLetter(c);
+            if (!letter && !isDigit(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < n && (letter ? Character.isLetter(text.charAt(i)) : isDigit(text.charAt(i)))) i++;
+            starts[size] = start;
+            ends[size] = i;
+            size++;
+            words.add(text.substring(start, i));
+        }
+        return new WordTokens(text, starts, ends, size, words);
+    }
+
+    boolean contains(String word) {
+        return words.contains(word);
+    }
+
+    boolean containsAny(String... candidates) {
+        for (String w : candidates) {
+            if (w != null && words.contains(w)) return true;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String word(int index) {
+        return text.substring(starts[index], ends[index]);
+    }
+
+    int start(int index) {
+        return starts[index];
+    }
+
+    int end(int index) {
+        return ends[index];
+    }
+
+    /**
+     * First standalone 4-digit year (19xx or 20xx), or null if none.
+     */
+    Integer firstYear() {
+        for (int t = 0; t < size; t++) {
+            int s = starts[t];
+            if (ends[t] - s != 4) continue;
+            char c0 = text.charAt(s);
+            char c1 = text.charAt(s + 1);
+            if ((c0 == '1' && c1 == '9') || (c0 == '2' && c1 == '0')) {
+                return (c0 - '0') * 1000 + (c1 - '0') * 100 + (text.charAt(s + 2) - '0') * 10 + (text.charAt(s + 3) - '0');
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
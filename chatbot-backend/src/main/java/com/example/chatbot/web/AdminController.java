@@ -0,0 +1,86 @@
+package com.example.chatbot.web;
+
+import com.example.chatbot.service.CompanyQaService;
+import com.example.chatbot.service.ConversationSessionService;
+import com.example.chatbot.service.GeminiService;
+import com.example.chatbot.service.KnowledgeSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final CompanyQaService companyQaService;
+    private final GeminiService geminiService;
+    private final ConversationSessionService conversationSessionService;
+
+    // Shared secret admin calls must send in X-Admin-Token; admin endpoints stay closed until it is set
+    @Value("${chatbot.admin.token:}")
+    private String adminToken;
+
+    public AdminController(CompanyQaService companyQaService, GeminiService geminiService,
+                           ConversationSessionService conversationSessionService) {
+        this.companyQaService = companyQaService;
+        this.geminiService = geminiService;
+        this.conversationSessionService = conversationSessionService;
+    }
+
+    @PostMapping(path = "/reload", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> reload(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        try {
+            KnowledgeSnapshot snapshot = companyQaService.reload();
+            body.put("status", "reloaded");
+            body.put("source", snapshot.source());
+            body.put("loadedAt", snapshot.loadedAt().toString());
+            body.put("subjects", snapshot.subjects().size());
+            return ResponseEntity.ok(body);
+        } catch (IllegalStateException e) {
+            body.put("status", "rejected");
+            body.put("error", e.getMessage());
+            return ResponseEntity.unprocessableEntity().body(body);
+        }
+    }
+
+    @GetMapping(path = "/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> cache(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(geminiService.replyCacheStats());
+    }
+
+    @GetMapping(path = "/circuit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> circuit(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(geminiService.circuitStatus());
+    }
+
+    @GetMapping(path = "/sessions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> sessions(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!authorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(conversationSessionService.sessionStats());
+    }
+
+    // No configured token means no admin access; constant-time so the token cannot be guessed byte by byte
+    private boolean authorized(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null) return false;
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
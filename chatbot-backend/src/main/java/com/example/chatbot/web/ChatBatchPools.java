@@ -0,0 +1,47 @@
+package com.example.chatbot.web;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools behind POST /api/chat/batch: a bounded fork-join pool for the CPU-only local tiers,
+ * and a small fixed pool that caps how many Gemini fallbacks run at once across all batches.
+ * Kept out of the context as beans: an Executor bean would replace Boot's applicationTaskExecutor.
+ */
+@Component
+public class ChatBatchPools {
+
+    private final ForkJoinPool local;
+    private final ExecutorService gemini;
+
+    public ChatBatchPools(@Value("${chatbot.batch.parallelism:0}") int parallelism,
+                          @Value("${chatbot.batch.gemini-concurrency:4}") int geminiConcurrency) {
+        this.local = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        AtomicInteger ids = new AtomicInteger();
+        this.gemini = Executors.newFixedThreadPool(Math.max(1, geminiConcurrency), r -> {
+            Thread t = new Thread(r, "chat-batch-gemini-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    ForkJoinPool local() {
+        return local;
+    }
+
+    ExecutorService gemini() {
+        return gemini;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        local.shutdown();
+        gemini.shutdown();
+    }
+}
@@ -1,35 +1,232 @@
 package com.example.chatbot.web;
 
+import com.example.chatbot.dto.ChatBatchResult;
 import com.example.chatbot.dto.ChatRequest;
 import com.example.chatbot.dto.ChatResponse;
+import com.example.chatbot.service.ChatMetrics;
 import com.example.chatbot.service.GeminiService;
 import com.example.chatbot.service.CompanyQaService;
 import com.example.chatbot.service.ConversationSessionService;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/chat")
 public class ChatController {
 
+    private static final Logger log = LoggerFactory.getLogger(ChatController.class);
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
     private final GeminiService geminiService;
     private final CompanyQaService companyQaService;
     private final ConversationSessionService conversationSessionService;
+    private final ChatStreamPool streamPool;
+    private final ChatMetrics metrics;
+    private final ChatBatchPools batchPools;
+
+    @Value("${chatbot.batch.max-items:200}")
+    private int batchMaxItems;
+
+    @Value("${chatbot.batch.timeout-ms:30000}")
+    private long batchTimeoutMs;
+
+    @Value("${chatbot.subjects.max-age-seconds:60}")
+    private long subjectsMaxAgeSeconds;
 
-    public ChatController(GeminiService geminiService, CompanyQaService companyQaService, ConversationSessionService conversationSessionService) {
+    @Value("${chatbot.subjects.suggest-limit:8}")
+    private int suggestLimit;
+
+    public ChatController(GeminiService geminiService, CompanyQaService companyQaService, ConversationSessionService conversationSessionService,
+                          ChatStreamPool streamPool, ChatMetrics metrics, ChatBatchPools batchPools) {
         this.geminiService = geminiService;
         this.companyQaService = companyQaService;
         this.conversationSessionService = conversationSessionService;
+        this.streamPool = streamPool;
+        this.metrics = metrics;
+        this.batchPools = batchPools;
+    }
+
+    // A reply and the tier that produced it
+    private record Answer(String reply, String tier) {
     }
 
+    /**
+     * The deterministic tiers run inline on the request thread. In reactive mode
+     * (chatbot.reactive.enabled) a Gemini fallback is a non-blocking WebClient call and the
+     * request thread is released until it completes; otherwise it blocks as before.
+     */
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ChatResponse chat(@Valid @RequestBody ChatRequest request) {
+    public Mono<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
+        String userMsg = request.getMessage();
+        String conversationLanguage = resolveLanguage(request);
+        boolean isEnglish = "en".equals(conversationLanguage);
+
+        Answer local = localAnswer(userMsg, isEnglish);
+        if (local != null) {
+            return Mono.just(respond(local));
+        }
+
+        // 3) Only as last resort, try Gemini API
+        if (geminiService.reactiveEnabled()) {
+            return geminiAnswerReactive(userMsg, conversationLanguage).map(this::respond);
+        }
+        return Mono.just(respond(geminiAnswer(userMsg, conversationLanguage)));
+    }
+
+    private ChatResponse respond(Answer answer) {
+        metrics.served(answer.tier());
+        return new ChatResponse(answer.reply());
+    }
+
+    /**
+     * Many questions in one call, answered in order. Languages are resolved in request order
+     * (so repeated conversation ids behave as in sequential calls), local tiers run in parallel
+     * on a bounded fork-join pool, and the remaining questions go to Gemini through a pool that
+     * caps concurrent upstream calls. Gemini answers not in by chatbot.batch.timeout-ms come back
+     * as the technical-difficulties reply with tier "timeout", so the call itself never hangs.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ChatBatchResult>> batch(@RequestBody List<@Valid ChatRequest> requests) {
+        if (requests.size() > batchMaxItems) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        for (ChatRequest request : requests) {
+            if (request == null) return ResponseEntity.badRequest().build();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMs);
+        int n = requests.size();
+        String[] languages = new String[n];
+        for (int i = 0; i < n; i++) languages[i] = resolveLanguage(requests.get(i));
+
+        List<ForkJoinTask<Answer>> local = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String userMsg = requests.get(i).getMessage();
+            boolean isEnglish = "en".equals(languages[i]);
+            local.add(batchPools.local().submit(() -> localAnswer(userMsg, isEnglish)));
+        }
+
+        List<CompletableFuture<Answer>> answers = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Answer answer = local.get(i).join();
+            if (answer != null) {
+                answers.add(CompletableFuture.completedFuture(answer));
+            } else {
+                String userMsg = requests.get(i).getMessage();
+                String language = languages[i];
+                long left = deadline - System.nanoTime();
+                Answer timedOut = new Answer(technicalDifficulties("en".equals(language)), ChatMetrics.TIER_TIMEOUT);
+                // A question still queued at the deadline is answered by the timeout and never calls Gemini
+                answers.add(CompletableFuture.supplyAsync(() -> System.nanoTime() - deadline < 0 ? geminiAnswer(userMsg, language) : timedOut,
+                                batchPools.gemini())
+                        .completeOnTimeout(timedOut, Math.max(left, 0), TimeUnit.NANOSECONDS));
+            }
+        }
+
+        List<ChatBatchResult> results = new ArrayList<>(n);
+        for (CompletableFuture<Answer> answer : answers) {
+            Answer a = answer.join();
+            // Counted here, so a Gemini answer that lost to the timeout is not counted too
+            metrics.served(a.tier());
+            results.add(new ChatBatchResult(a.reply(), a.tier()));
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Same answer as {@link #chat} as Server-Sent Events: deterministic answers come as one
+     * "reply" event, Gemini answers as a series of "token" events; both end with "done".
+     * A Gemini answer needs a slot of {@link ChatStreamPool}; when all are taken the call gets a 503.
+     */
+    @PostMapping(path = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@Valid @RequestBody ChatRequest request) {
+        String userMsg = request.getMessage();
+        String conversationLanguage = resolveLanguage(request);
+        boolean isEnglish = "en".equals(conversationLanguage);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        Answer local = localAnswer(userMsg, isEnglish);
+        if (local != null) {
+            metrics.served(local.tier());
+            try {
+                send(emitter, "reply", local.reply());
+                emitter.send(SseEmitter.event().name("done").data(""));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return ResponseEntity.ok(emitter);
+        }
+
+        boolean started = streamPool.tryExecute(() -> {
+            Timer.Sample sample = metrics.startTier();
+            try {
+                String context = companyQaService.buildContext(userMsg);
+                geminiService.streamReply(userMsg, context, conversationLanguage, token -> send(emitter, "token", token));
+                metrics.tierDone(sample, ChatMetrics.TIER_GEMINI, true);
+            } catch (StreamClosedException e) {
+                log.debug("Client closed the chat stream");
+                return;
+            } catch (Exception e) {
+                metrics.tierDone(sample, ChatMetrics.TIER_GEMINI, false);
+                metrics.served(ChatMetrics.TIER_FALLBACK);
+                try {
+                    send(emitter, "error", technicalDifficulties(isEnglish));
+                } catch (StreamClosedException ignored) {
+                    return;
+                }
+            }
+            try {
+                emitter.send(SseEmitter.event().name("done").data(""));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        if (!started) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static void send(SseEmitter emitter, String event, String text) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(new ChatResponse(text), MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            throw new StreamClosedException(e);
+        }
+    }
+
+    // The client went away mid-stream; stops the upstream read
+    private static final class StreamClosedException extends RuntimeException {
+        StreamClosedException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private String resolveLanguage(ChatRequest request) {
         String userMsg = request.getMessage();
         String conversationId = request.getConversationId();
         String preferredLanguage = request.getLanguage();
-        
-    
+
         String conversationLanguage;
         if (preferredLanguage != null && ("en".equalsIgnoreCase(preferredLanguage) || "fr".equalsIgnoreCase(preferredLanguage))) {
             conversationLanguage = preferredLanguage.toLowerCase();
@@ -39,33 +236,61 @@ public class ChatController {
             conversationLanguage = conversationSessionService.detectLanguageForMessage(userMsg);
             conversationSessionService.detectAndStoreLanguage(conversationId, userMsg);
         }
-        boolean isEnglish = "en".equals(conversationLanguage);
-        
-        // 1) Try direct deterministic answer from JSON 
+        return conversationLanguage;
+    }
+
+    // Answers that need no Gemini call, or null. Like geminiAnswer, it times the tiers but leaves
+    // counting the served tier to the caller that sends the answer.
+    private Answer localAnswer(String userMsg, boolean isEnglish) {
+        // 1) Try direct deterministic answer from JSON
+        Timer.Sample sample = metrics.startTier();
         String direct = companyQaService.answer(userMsg, isEnglish);
-        if (direct != null && !direct.startsWith("Je suis désolé") && !direct.startsWith("I'm sorry")) {
-            return new ChatResponse(direct);
+        boolean answered = direct != null && !direct.startsWith("Je suis désolé") && !direct.startsWith("I'm sorry");
+        metrics.tierTimed(sample, ChatMetrics.TIER_DIRECT, answered);
+        if (answered) {
+            return new Answer(direct, ChatMetrics.TIER_DIRECT);
         }
-        
+
         // 2) If no direct answer, try to provide a basic response without Gemini API
-        String basicResponse = provideBasicResponse(userMsg, isEnglish);
-        if (basicResponse != null) {
-            return new ChatResponse(basicResponse);
-        }
-        
-        // 3) Only as last resort, try Gemini API
+        sample = metrics.startTier();
+        String basic = provideBasicResponse(userMsg, isEnglish);
+        metrics.tierTimed(sample, ChatMetrics.TIER_BASIC, basic != null);
+        return basic != null ? new Answer(basic, ChatMetrics.TIER_BASIC) : null;
+    }
+
+    // Gemini with the company context; the technical-difficulties reply if it fails
+    private Answer geminiAnswer(String userMsg, String conversationLanguage) {
+        Timer.Sample sample = metrics.startTier();
         try {
             String context = companyQaService.buildContext(userMsg);
             String reply = geminiService.generateReply(userMsg, context, conversationLanguage);
-            return new ChatResponse(reply);
+            metrics.tierTimed(sample, ChatMetrics.TIER_GEMINI, true);
+            return new Answer(reply, ChatMetrics.TIER_GEMINI);
         } catch (Exception e) {
-          
-            String errorMessage = isEnglish 
-                ? "I'm sorry, I'm currently experiencing technical difficulties. Please try asking about Gear9's address, services, projects, clients, awards, or expertise."
-                : "Je suis désolé, je rencontre actuellement des difficultés techniques. Veuillez essayer de demander l'adresse, les services, les projets, les clients, les distinctions ou l'expertise de Gear9.";
-            return new ChatResponse(errorMessage);
+            metrics.tierTimed(sample, ChatMetrics.TIER_GEMINI, false);
+            return new Answer(technicalDifficulties("en".equals(conversationLanguage)), ChatMetrics.TIER_FALLBACK);
         }
     }
+
+    // geminiAnswer without blocking: the context is built inline, the Gemini call is left to the event loop
+    private Mono<Answer> geminiAnswerReactive(String userMsg, String conversationLanguage) {
+        Timer.Sample sample = metrics.startTier();
+        return Mono.defer(() -> geminiService.generateReplyReactive(userMsg, companyQaService.buildContext(userMsg), conversationLanguage))
+                .map(reply -> {
+                    metrics.tierTimed(sample, ChatMetrics.TIER_GEMINI, true);
+                    return new Answer(reply, ChatMetrics.TIER_GEMINI);
+                })
+                .onErrorResume(e -> {
+                    metrics.tierTimed(sample, ChatMetrics.TIER_GEMINI, false);
+                    return Mono.just(new Answer(technicalDifficulties("en".equals(conversationLanguage)), ChatMetrics.TIER_FALLBACK));
+                });
+    }
+
+    private static String technicalDifficulties(boolean isEnglish) {
+        return isEnglish
+            ? "I'm sorry, I'm currently experiencing technical difficulties. Please try asking about Gear9's address, services, projects, clients, awards, or expertise."
+            : "Je suis désolé, je rencontre actuellement des difficultés techniques. Veuillez essayer de demander l'adresse, les services, les projets, les clients, les distinctions ou l'expertise de Gear9.";
+    }
     
    
     private String provideBasicResponse(String userMessage, boolean isEnglish) {
@@ -96,9 +321,24 @@ public class ChatController {
         return null;
     }
     
+  // Precomputed per knowledge snapshot; If-None-Match with the current ETag gets a 304
   @GetMapping(path = "/subjects", produces = MediaType.APPLICATION_JSON_VALUE)
-  public java.util.List<String> subjects() {
-    return companyQaService.getSubjects();
+  public ResponseEntity<List<String>> subjects() {
+    return ResponseEntity.ok().eTag(companyQaService.getSubjectsETag()).cacheControl(subjectsCacheControl())
+        .body(companyQaService.getSubjects());
+  }
+
+  // Top completions of q (accent- and case-insensitive), so clients don't filter the full list per keystroke
+  @GetMapping(path = "/subjects/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<String>> suggestSubjects(@RequestParam(name = "q", defaultValue = "") String q,
+                                                    @RequestParam(name = "limit", required = false) Integer limit) {
+    int n = limit == null ? suggestLimit : Math.max(limit, 0);
+    return ResponseEntity.ok().eTag(companyQaService.getSubjectsETag()).cacheControl(subjectsCacheControl())
+        .body(companyQaService.suggestSubjects(q, n));
+  }
+
+  private CacheControl subjectsCacheControl() {
+    return subjectsMaxAgeSeconds > 0 ? CacheControl.maxAge(Duration.ofSeconds(subjectsMaxAgeSeconds)) : CacheControl.noCache();
   }
   
  }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.chatbot.web;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads behind POST /api/chat/stream, apart from Boot's shared applicationTaskExecutor so a
+ * stream starts at once instead of queueing behind other async work. At most max-concurrent
+ * streams run; past that a new one is refused rather than queued, so it never waits for a
+ * first token. One virtual thread per stream in virtual-thread mode, otherwise a pool of
+ * platform threads that grows up to the limit and shrinks when idle.
+ */
+@Component
+public class ChatStreamPool {
+
+    private final Semaphore slots;
+    private final Executor executor;
+    private final ThreadPoolExecutor platform;
+
+    public ChatStreamPool(@Value("${chatbot.stream.max-concurrent:64}") int maxConcurrent,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int max = Math.max(1, maxConcurrent);
+        this.slots = new Semaphore(max);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("chat-stream-");
+            virtual.setVirtualThreads(true);
+            this.executor = virtual;
+            this.platform = null;
+        } else {
+            AtomicInteger ids = new AtomicInteger();
+            this.platform = new ThreadPoolExecutor(0, max, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                Thread t = new Thread(r, "chat-stream-" + ids.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            this.executor = platform;
+        }
+    }
+
+    /**
+     * Starts the stream task, or returns false when max-concurrent streams are already running.
+     */
+    boolean tryExecute(Runnable task) {
+        if (!slots.tryAcquire()) return false;
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (platform != null) platform.shutdown();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.chatbot.web;
+
+import com.example.chatbot.dto.ChatRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Training run of the fast-start build (mvn -Pfast-start package): with chatbot.training.run=true
+ * the app sends a few questions through its own chat endpoints once ready, so the classes of the
+ * real request path are loaded, then exits and the JVM writes the AppCDS archive.
+ * A plain listener rather than a conditional bean, because AOT fixes conditions at build time.
+ */
+@Component
+public class StartupTraining implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTraining.class);
+
+    // Direct, basic and Gemini-fallback tiers in both languages
+    private static final String[][] QUESTIONS = {
+            {"Quelle est votre adresse ?", "fr"},
+            {"What services do you offer?", "en"},
+            {"Quels sont vos projets dans la finance ?", "fr"},
+            {"Who is the CEO?", "en"},
+            {"Bonjour", null},
+            {"What is the weather like on Mars?", "en"}
+    };
+
+    @Value("${chatbot.training.run:false}")
+    private boolean enabled;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled) return;
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int port = context instanceof WebServerApplicationContext web ? web.getWebServer().getPort() : 8080;
+        String base = "http://localhost:" + port + "/api/chat";
+        RestTemplate client = new RestTemplate();
+        int failed = 0;
+        for (String[] q : QUESTIONS) {
+            ChatRequest request = new ChatRequest();
+            request.setMessage(q[0]);
+            request.setLanguage(q[1]);
+            request.setConversationId("training");
+            try {
+                client.postForObject(base, request, String.class);
+                client.postForObject(base + "/batch", new ChatRequest[]{request}, String.class);
+            } catch (RestClientException e) {
+                failed++;
+                log.warn("Training request \"{}\" failed: {}", q[0], e.getMessage());
+            }
+        }
+        try {
+            client.getForObject(base + "/subjects", String.class);
+            client.getForObject(base + "/subjects/suggest?q=sal", String.class);
+        } catch (RestClientException e) {
+            failed++;
+            log.warn("Training subjects request failed: {}", e.getMessage());
+        }
+        log.info("Training run done ({} failed requests), exiting", failed);
+        int exitCode = failed == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.chatbot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the native executable built by mvn -Pnative verify against the chat endpoints, then
+ * starts it and the JVM jar the same way and writes target/native-report.md comparing time to
+ * ready and resident memory. The working directory is target/, so data.json comes from the
+ * classpath as in a container image.
+ */
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+class NativeBinaryIT {
+
+	private static final Duration READY_TIMEOUT = Duration.ofSeconds(60);
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+	private final Path binary = Path.of(System.getProperty("native.binary"));
+	private final Path jar = Path.of(System.getProperty("jvm.jar", ""));
+
+	@Test
+	void answersChatAndSubjects() throws Exception {
+		try (Server server = start(List.of(binary.toString()))) {
+			HttpResponse<String> address = post(server, "/api/chat", "{\"message\":\"Quelle est votre adresse ?\",\"language\":\"fr\"}");
+			assertEquals(200, address.statusCode());
+			assertTrue(address.body().contains("Casablanca"), address.body());
+
+			// No API key: the Gemini tier answers without a network call
+			HttpResponse<String> fallback = post(server, "/api/chat", "{\"message\":\"What is the weather on Mars?\"}");
+			assertEquals(200, fallback.statusCode());
+			assertTrue(fallback.body().contains("\"reply\""), fallback.body());
+
+			HttpResponse<String> subjects = get(server, "/api/chat/subjects");
+			assertEquals(200, subjects.statusCode());
+			assertTrue(subjects.body().contains("Salesforce"), subjects.body());
+			assertTrue(subjects.headers().firstValue("ETag").isPresent());
+
+			HttpResponse<String> suggest = get(server, "/api/chat/subjects/suggest?q=sal");
+			assertEquals(200, suggest.statusCode());
+			assertTrue(suggest.body().contains("Salesforce"), suggest.body());
+		}
+	}
+
+	@Test
+	void reportsStartupAndMemoryAgainstTheJvm() throws Exception {
+		List<String> rows = new ArrayList<>();
+		rows.add("| build | ready (ms) | RSS after warm-up (MB) |");
+		rows.add("|---|---|---|");
+		rows.add(measure("native", List.of(binary.toString())));
+		if (Files.isRegularFile(jar)) {
+			String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+			rows.add(measure("jvm", List.of(java, "-jar", jar.toString())));
+		}
+		String report = "# Native vs JVM startup\n\n" + String.join("\n", rows) + "\n";
+		Files.writeString(binary.resolveSibling("native-report.md"), report);
+		System.out.println(report);
+	}
+
+	private String measure(String name, List<String> command) throws Exception {
+		try (Server server = start(command)) {
+			for (int i = 0; i < 20; i++) {
+				post(server, "/api/chat", "{\"message\":\"What services do you offer?\",\"language\":\"en\"}");
+				get(server, "/api/chat/subjects");
+			}
+			long rssKb = rssKb(server.process.pid());
+			String rss = rssKb < 0 ? "n/a" : String.format("%.1f", rssKb / 1024.0);
+			return "| " + name + " | " + server.readyMs + " | " + rss + " |";
+		}
+	}
+
+	private Server start(List<String> command) throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		List<String> args = new ArrayList<>(command);
+		args.addAll(List.of("--server.port=" + port, "--gemini.api.key=", "--chatbot.data.watch=false",
+				"--chatbot.gemini.translation-memory.file="));
+		long started = System.nanoTime();
+		Process process = new ProcessBuilder(args)
+				.directory(binary.getParent().toFile())
+				.redirectErrorStream(true)
+				.redirectOutput(binary.resolveSibling("native-it-" + port + ".log").toFile())
+				.start();
+		Server server = new Server(process, port);
+		long deadline = started + READY_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline && process.isAlive()) {
+			try {
+				if (get(server, "/actuator/health").statusCode() == 200) {
+					server.readyMs = (System.nanoTime() - started) / 1_000_000;
+					return server;
+				}
+			} catch (IOException notYet) {
+				// not listening yet
+			}
+			Thread.sleep(10);
+		}
+		server.close();
+		throw new IllegalStateException(command.get(0) + " did not become ready, see target/native-it-" + port + ".log");
+	}
+
+	private HttpResponse<String> get(Server server, String path) throws IOException, InterruptedException {
+		return http.send(HttpRequest.newBuilder(server.uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> post(Server server, String path, String json) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(server.uri(path))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+		return http.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	// VmRSS of a Linux process, -1 elsewhere
+	private static long rssKb(long pid) {
+		try {
+			for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+				if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("\\D", ""));
+			}
+		} catch (IOException | NumberFormatException ignored) {
+		}
+		return -1;
+	}
+
+	private static final class Server implements AutoCloseable {
+		private final Process process;
+		private final int port;
+		private long readyMs;
+
+		private Server(Process process, int port) {
+			this.process = process;
+			this.port = port;
+		}
+
+		URI uri(String path) {
+			return URI.create("http://localhost:" + port + path);
+		}
+
+		@Override
+		public void close() throws InterruptedException {
+			process.destroy();
+			if (!process.waitFor(10, TimeUnit.SECONDS)) process.destroyForcibly();
+		}
+	}
+}
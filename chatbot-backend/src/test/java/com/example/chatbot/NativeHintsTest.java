@@ -0,0 +1,39 @@
+package com.example.chatbot;
+
+import com.example.chatbot.dto.ChatResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsTest {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	NativeHintsTest() {
+		new NativeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void registersDataJsonAndTheLinguaModelsInUse() {
+		assertTrue(RuntimeHintsPredicates.resource().forResource(NativeHints.DATA_JSON).test(hints));
+		assertTrue(RuntimeHintsPredicates.resource().forResource(NativeHints.DATA_SCHEMA).test(hints));
+		for (String language : NativeHints.LINGUA_LANGUAGES) {
+			String model = "language-models/" + language + "/trigrams.json";
+			assertNotNull(getClass().getClassLoader().getResource(model), model);
+			assertTrue(RuntimeHintsPredicates.resource().forResource(model).test(hints), model);
+		}
+		assertTrue(!RuntimeHintsPredicates.resource().forResource("language-models/de/trigrams.json").test(hints));
+	}
+
+	@Test
+	void registersReflectionForJacksonAndLingua() {
+		assertTrue(RuntimeHintsPredicates.reflection().onType(ChatResponse.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(NativeHints.GENERATED_KNOWLEDGE)).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection()
+				.onType(TypeReference.of("com.github.pemistahl.lingua.internal.JsonLanguageModel$Companion")).test(hints));
+	}
+}
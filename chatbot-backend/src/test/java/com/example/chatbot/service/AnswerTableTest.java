@@ -0,0 +1,57 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AnswerTableTest {
+
+	private static final int[] YEARS = {2019, 2021, 2024};
+
+	@Test
+	void looksUpByIntentLanguageQualifierAndBucket() {
+		AnswerTable table = AnswerTable.builder(YEARS)
+				.put(AnswerTable.Intent.SERVICES, false, null, AnswerTable.NO_YEAR, "Nos services")
+				.put(AnswerTable.Intent.SERVICES, true, null, AnswerTable.NO_YEAR, "Our services")
+				.put(AnswerTable.Intent.PROJECTS, true, "finance", AnswerTable.NO_YEAR, "Finance projects")
+				.put(AnswerTable.Intent.AWARDS, true, null, 1, "Since 2021")
+				.put(AnswerTable.Intent.LEADERSHIP, true, null, AnswerTable.NO_YEAR, null)
+				.build();
+
+		assertEquals("Nos services", table.get(AnswerTable.Intent.SERVICES, false));
+		assertEquals("Our services", table.get(AnswerTable.Intent.SERVICES, true));
+		assertEquals("Finance projects", table.get(AnswerTable.Intent.PROJECTS, true, "finance"));
+		assertNull(table.get(AnswerTable.Intent.PROJECTS, true));
+		assertEquals("Since 2021", table.get(AnswerTable.Intent.AWARDS, true, null, 1));
+		assertNull(table.get(AnswerTable.Intent.AWARDS, true, null, 2));
+		// A null reply is not stored
+		assertNull(table.get(AnswerTable.Intent.LEADERSHIP, true));
+	}
+
+	@Test
+	void bucketsSinceYearsBetweenDistinctAwardYears() {
+		AnswerTable table = AnswerTable.builder(YEARS).build();
+		assertEquals(0, table.yearBucket(2000));
+		assertEquals(0, table.yearBucket(2019));
+		assertEquals(1, table.yearBucket(2020));
+		assertEquals(1, table.yearBucket(2021));
+		assertEquals(2, table.yearBucket(2024));
+		assertEquals(3, table.yearBucket(2025));
+
+		// Each bucket compiles with a year that falls back into it
+		for (int bucket = 0; bucket <= YEARS.length; bucket++) {
+			assertEquals(bucket, table.yearBucket(AnswerTable.bucketYear(YEARS, bucket)));
+		}
+		assertEquals(0, AnswerTable.bucketYear(new int[0], 0));
+	}
+
+	@Test
+	void keepsItsOwnCopyOfTheYears() {
+		int[] years = YEARS.clone();
+		AnswerTable table = AnswerTable.builder(years).build();
+		years[0] = 1990;
+		assertArrayEquals(YEARS, table.awardYears());
+	}
+}
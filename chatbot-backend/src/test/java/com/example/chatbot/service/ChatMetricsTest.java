@@ -0,0 +1,33 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ChatMetrics metrics = new ChatMetrics(registry);
+
+	@Test
+	void countsServingTierOnly() {
+		metrics.tierDone(metrics.startTier(), ChatMetrics.TIER_DIRECT, false);
+		metrics.tierDone(metrics.startTier(), ChatMetrics.TIER_BASIC, true);
+		assertEquals(1, registry.get("chatbot.tier.latency").tag("tier", "direct").tag("outcome", "passed").timer().count());
+		assertEquals(1, registry.get("chatbot.requests").tag("tier", "basic").counter().count());
+		assertEquals(0, registry.find("chatbot.requests").tag("tier", "direct").counters().size());
+	}
+
+	@Test
+	void addsTokenUsage() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		metrics.tokens("reply", mapper.readTree("{\"promptTokenCount\":120,\"candidatesTokenCount\":30,\"totalTokenCount\":150}"));
+		metrics.tokens("reply", mapper.readTree("{\"promptTokenCount\":80,\"totalTokenCount\":80}"));
+		metrics.tokens("reply", null);
+		assertEquals(200, registry.get("chatbot.gemini.tokens").tag("type", "prompt").counter().count());
+		assertEquals(30, registry.get("chatbot.gemini.tokens").tag("type", "candidates").counter().count());
+		assertEquals(230, registry.get("chatbot.gemini.tokens").tag("type", "total").counter().count());
+	}
+}
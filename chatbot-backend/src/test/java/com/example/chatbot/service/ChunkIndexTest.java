@@ -0,0 +1,30 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkIndexTest {
+
+	private final ChunkIndex index = ChunkIndex.build(List.of(
+			new ChunkIndex.Chunk("company.address", "Adresse: 219 Bd Zerktouni, Casablanca", "entreprise", ""),
+			new ChunkIndex.Chunk("award.0", "Récompense: Meilleur Design Web — 2023", "recompenses", ""),
+			new ChunkIndex.Chunk("project.bank", "Projet: Bank Of Africa — Customer Experience", "projets", "finance banque")));
+
+	@Test
+	void ranksMatchingChunkFirstAcrossLanguages() {
+		assertEquals("company.address", index.search("Where is your office?", 3, 1000).get(0).chunk().id());
+		assertEquals("award.0", index.search("quelles récompenses ?", 3, 1000).get(0).chunk().id());
+		assertEquals("project.bank", index.search("projects in finance", 3, 1000).get(0).chunk().id());
+	}
+
+	@Test
+	void respectsTopKAndCharBudget() {
+		assertEquals(1, index.search("projet adresse récompense", 1, 1000).size());
+		assertTrue(index.search("projet adresse récompense", 3, 10).isEmpty());
+		assertTrue(index.search("météo", 3, 1000).isEmpty());
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, 1000, 1, now::get);
+
+	@Test
+	void opensOnFailureRateThenRecoversThroughHalfOpen() {
+		breaker.acquire().success();
+		breaker.acquire().success();
+		breaker.acquire().failure(false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.status().state());
+		breaker.acquire().failure(false);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.status().state());
+		assertNull(breaker.acquire());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		CircuitBreaker.Permit trial = breaker.acquire();
+		assertNotNull(trial);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.status().state());
+		assertNull(breaker.acquire());
+		trial.success();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.status().state());
+		assertEquals(3, breaker.status().transitions().size());
+	}
+
+	@Test
+	void quotaOpensImmediately() {
+		breaker.acquire().failure(true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.status().state());
+		assertTrue(breaker.openForQuota());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		breaker.acquire().failure(true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.status().state());
+	}
+
+	@Test
+	void releasedTrialFreesTheSlot() {
+		breaker.acquire().failure(true);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		try (CircuitBreaker.Permit trial = breaker.acquire()) {
+			assertNotNull(trial);
+		}
+		assertNotNull(breaker.acquire());
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompanyKnowledgeTest {
+
+	private static CompanyKnowledge bind(String json) throws Exception {
+		return CompanyKnowledge.bind(new ObjectMapper().readTree(json), List.of("finance", "télécom"));
+	}
+
+	private static List<String> titles(List<CompanyKnowledge.Award> awards) {
+		return awards.stream().map(CompanyKnowledge.Award::title).toList();
+	}
+
+	@Test
+	void sortsAwardsAndFindsThoseSinceAYear() throws Exception {
+		CompanyKnowledge kb = bind("""
+				{"data": {"realisations_et_recompenses": [
+				  {"titre": "A", "annee": 2021}, {"titre": "B"}, {"titre": "C", "annee": 2024}, {"titre": "D", "annee": 2023}
+				]}}""");
+		assertEquals(List.of("C", "D", "A", "B"), titles(kb.awards()));
+		assertEquals(List.of("C", "D", "B"), titles(kb.awardsSince(2022)));
+		assertEquals(List.of("C", "D", "A", "B"), titles(kb.awardsSince(2021)));
+		assertEquals(List.of("B"), titles(kb.awardsSince(2030)));
+	}
+
+	@Test
+	void indexesProjectsBySectorAndResolvesLanguages() throws Exception {
+		CompanyKnowledge kb = bind("""
+				{"data": {"nom_entreprise": "Gear9", "projets": [
+				  {"id": "a", "nom": "A", "secteur": "Finance", "type": "Refonte", "type_en": "Redesign"},
+				  {"id": "b", "nom": "B", "secteur": "Télécom", "type": " "},
+				  {"id": "c", "nom": "C", "secteur": "Finance & Assurance"}
+				]}}""");
+		assertEquals("Gear9", kb.name());
+		assertEquals(List.of("A", "C"), kb.projectsIn("finance").stream().map(CompanyKnowledge.Project::name).toList());
+		assertEquals(3, kb.projectsIn(null).size());
+		assertEquals(List.of(), kb.projectsIn("retail"));
+		CompanyKnowledge.Text type = kb.projects().get(0).type();
+		assertEquals("Redesign", type.get(true));
+		assertEquals("Refonte", type.get(false));
+		assertNull(kb.projects().get(1).type().get(true));
+	}
+
+	@Test
+	void withoutDataObjectBindsNothing() throws Exception {
+		assertNull(bind("{\"chunks\": []}"));
+		assertNull(CompanyKnowledge.bind(null, List.of()));
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Deterministic answers on the knowledge base compiled from the build's data.json.
+ */
+class CompanyQaServiceTest {
+
+	private final CompanyQaService qa = new CompanyQaService(mock(GeminiService.class), new LanguageClassifier(false), 6, 350, false);
+
+	@Test
+	void aliasAnswersKeepTheSectorOfTheQuestion() {
+		String en = qa.answer("projects in finance", true);
+		assertTrue(en.contains("Bank Of Africa"), en);
+		assertFalse(en.contains("Toyota"), en);
+
+		String fr = qa.answer("projets finance", false);
+		assertTrue(fr.contains("Attijariwafa Bank"), fr);
+		assertFalse(fr.contains("inwi"), fr);
+	}
+
+	@Test
+	void aliasAnswersKeepTheYearOfTheQuestion() {
+		String en = qa.answer("awards since 2024", true);
+		assertTrue(en.startsWith("Awards and achievements since 2024 include "), en);
+		assertTrue(en.contains("CRO"), en);
+		assertFalse(en.contains("Design Web"), en);
+
+		String fr = qa.answer("récompenses depuis 2024", false);
+		assertTrue(fr.startsWith("Depuis 2024, "), fr);
+		assertFalse(fr.contains("Design Web"), fr);
+	}
+
+	@Test
+	void digitalAliasesAnswerWithTheDigitalExpertise() {
+		for (String question : new String[]{"digital", "customer experience", "product thinking", "automation"}) {
+			String en = qa.answer(question, true);
+			assertTrue(en.startsWith("Details of our digital expertise include "), question + ": " + en);
+			assertFalse(en.contains("Sales Cloud"), question + ": " + en);
+		}
+		String fr = qa.answer("automation", false);
+		assertTrue(fr.startsWith("Parmi les détails de notre expertise digital, "), fr);
+		assertTrue(fr.contains("Analyse Comportementale"), fr);
+	}
+
+	@Test
+	void accentedOverviewWordingGetsTheAboutAnswer() {
+		for (String question : new String[]{"à propos", "a propos", "présentation", "presentation de gear9"}) {
+			String fr = qa.answer(question, false);
+			assertTrue(fr.startsWith("**Gear9** est une agence marocaine"), question + ": " + fr);
+		}
+		String en = qa.answer("overview", true);
+		assertTrue(en.startsWith("**Gear9** is a Moroccan"), en);
+
+		String services = qa.answer("à propos de vos services", false);
+		assertTrue(services.startsWith("Gear9 propose des services"), services);
+	}
+
+	@Test
+	void whereQuestionsGetTheAddress() {
+		assertTrue(qa.answer("où se trouve gear9", false).startsWith("Adresse de **Gear9**"));
+		assertTrue(qa.answer("où êtes-vous situés", false).startsWith("Adresse de **Gear9**"));
+		assertTrue(qa.answer("where is gear9", true).startsWith("Address of **Gear9**"));
+	}
+}
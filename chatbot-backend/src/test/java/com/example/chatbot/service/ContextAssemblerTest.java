@@ -0,0 +1,43 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContextAssemblerTest {
+
+	@Test
+	void estimatesWordsAndPunctuation() {
+		assertEquals(0, ContextAssembler.estimateTokens(""));
+		assertEquals(4, ContextAssembler.estimateTokens("Nom: Gear9"));
+		assertEquals(3, ContextAssembler.estimateTokens("Salesforce"));
+	}
+
+	@Test
+	void dropsFactsAlreadySent() {
+		ContextAssembler context = new ContextAssembler(200);
+		context.add("À propos: Gear9 est une agence digitale. Experts Salesforce.");
+		context.add("Aperçu: Experts Salesforce.\nAdresse: Casablanca");
+		assertEquals("À propos: Gear9 est une agence digitale. Experts Salesforce.\nAdresse: Casablanca", context.build());
+	}
+
+	@Test
+	void cutsTheFirstFactThatOverflows() {
+		ContextAssembler context = new ContextAssembler(20);
+		assertTrue(context.add("Nom: Gear9"));
+		assertFalse(context.add("Service: Intégration Salesforce pour les entreprises du secteur bancaire et des assurances au Maroc"));
+		assertFalse(context.add("Adresse: Casablanca"));
+		String built = context.build();
+		assertTrue(built.startsWith("Nom: Gear9\nService: Intégration"));
+		assertTrue(built.endsWith("…"));
+		assertTrue(context.usedTokens() <= 20);
+	}
+
+	@Test
+	void emptyWhenNothingAdded() {
+		assertNull(new ContextAssembler(50).build());
+	}
+}
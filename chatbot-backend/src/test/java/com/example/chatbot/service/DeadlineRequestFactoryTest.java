@@ -0,0 +1,45 @@
+package com.example.chatbot.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeadlineRequestFactoryTest {
+
+	@Test
+	void dropsTheDeadlineOnceTheResponseIsClosed() throws Exception {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/ok", exchange -> {
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		try (CloseableHttpClient client = HttpClients.createDefault()) {
+			RestTemplate rest = new RestTemplate(new GeminiHttpConfig.DeadlineRequestFactory(client, 60_000));
+			int before = GeminiHttpConfig.DeadlineRequestFactory.pendingDeadlines();
+			String url = "http://localhost:" + server.getAddress().getPort();
+			for (int i = 0; i < 20; i++) {
+				assertEquals("ok", rest.getForObject(url + "/ok", String.class));
+			}
+			assertEquals(before, GeminiHttpConfig.DeadlineRequestFactory.pendingDeadlines());
+
+			// A failed exchange drops its deadline too
+			server.stop(0);
+			assertThrows(ResourceAccessException.class, () -> rest.getForObject(url + "/ok", String.class));
+			assertEquals(before, GeminiHttpConfig.DeadlineRequestFactory.pendingDeadlines());
+		} finally {
+			server.stop(0);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GreetingStripperTest {
+
+	@Test
+	void stripsLeadingGreeting() {
+		assertEquals("Voici nos services.", GreetingStripper.strip("Bonjour ! Voici nos services."));
+		assertEquals("Gear9 is based in Casablanca.", GreetingStripper.strip("Hello,\n\nGear9 is based in Casablanca."));
+		assertEquals("Our services:", GreetingStripper.strip("Hi! Hello there, nice to meet you\nOur services:"));
+		assertEquals("History of Gear9", GreetingStripper.strip("History of Gear9"));
+	}
+
+	@Test
+	void streamingMatchesWholeText() {
+		String[] replies = {
+				"Bonjour ! Voici nos services.",
+				"Hello,\n\nGear9 is based in Casablanca.",
+				"Hi! Hello there, nice to meet you\nOur services:",
+				"History of Gear9",
+				"  **Gear9** propose Salesforce."
+		};
+		for (String reply : replies) {
+			for (int size = 1; size <= 4; size++) {
+				GreetingStripper stripper = new GreetingStripper();
+				StringBuilder out = new StringBuilder();
+				for (int i = 0; i < reply.length(); i += size) {
+					out.append(stripper.accept(reply.substring(i, Math.min(reply.length(), i + size))));
+				}
+				out.append(stripper.finish());
+				assertEquals(GreetingStripper.strip(reply), out.toString().trim(), reply);
+			}
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordMatcherTest {
+
+	private final KeywordMatcher matcher = KeywordMatcher.builder()
+			.add("address", "adresse", "address", "head office")
+			.add("services", "service", "services", "offre")
+			.add("salesforce", "salesforce", "sales cloud")
+			.build();
+
+	@Test
+	void matchesLikeContainsInOnePass() {
+		KeywordMatcher.Hits hits = matcher.scan("what services does the head office offer on sales cloud?");
+		assertTrue(hits.any("services"));
+		assertTrue(hits.any("address"));
+		assertTrue(hits.any("salesforce"));
+		assertEquals(2, hits.count("services"));
+		assertFalse(hits.any("unknown"));
+	}
+
+	@Test
+	void reportsOverlappingHitsWithPositions() {
+		KeywordMatcher.Hits hits = matcher.scan("nos services");
+		assertEquals(2, hits.all().size());
+		assertEquals(4, hits.all().get(0).start());
+		assertTrue(hits.anyFrom("services", 4));
+		assertFalse(hits.anyFrom("services", 5));
+	}
+
+	@Test
+	void noHitsOnUnrelatedText() {
+		KeywordMatcher.Hits hits = matcher.scan("bonjour");
+		assertTrue(hits.all().isEmpty());
+		assertFalse(hits.any("address"));
+	}
+}
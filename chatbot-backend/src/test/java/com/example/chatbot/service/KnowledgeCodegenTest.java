@@ -0,0 +1,104 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnowledgeCodegenTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void generatedClassHoldsWhatParsingDataJsonGives() throws Exception {
+		// Generated at generate-sources and compiled with the main classes
+		KnowledgeContent generated = KnowledgeContent.generated();
+		assertNotNull(generated);
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(CompanyQaService.DATA_FILE)) {
+			KnowledgeContent parsed = CompanyQaService.content(new ObjectMapper().readTree(in), "test");
+			assertEquals(parsed.company(), generated.company());
+			assertEquals(parsed.subjects(), generated.subjects());
+			assertEquals(parsed.chunks(), generated.chunks());
+		}
+		assertTrue(generated.source().startsWith("generated:data.json#"), generated.source());
+	}
+
+	@Test
+	void sharesStringsAndIndexedProjects() throws Exception {
+		KnowledgeContent content = CompanyQaService.content(new ObjectMapper().readTree("""
+				{"data": {"nom_entreprise": "Gear9", "projets": [
+				  {"id": "a", "nom": "Finance", "secteur": "Finance"},
+				  {"id": "b", "nom": "B \\"quoted\\"\\nline", "secteur": "Retail"}
+				]}}"""), "test");
+		String java = KnowledgeCodegen.generate(content);
+
+		assertEquals(1, java.split("\"Finance\",\n", -1).length - 1, "one string table entry per distinct string");
+		assertTrue(java.contains("List.of(PROJECTS_0.V)"), java);
+		assertTrue(java.contains("List.of(PROJECTS_0.V[0])"), java);
+		assertTrue(java.contains("\"B \\\"quoted\\\"\\nline\""), java);
+		assertTrue(java.contains("final class GeneratedKnowledge implements Supplier<KnowledgeContent>"), java);
+	}
+
+	@Test
+	void spreadsLargeContentOverHoldersThatCompile() {
+		List<ChunkIndex.Chunk> chunks = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			chunks.add(new ChunkIndex.Chunk("chunk." + i, "Text " + i, "section " + (i % 7), "keywords " + i));
+		}
+		String java = KnowledgeCodegen.generate(new KnowledgeContent(company(List.of()), List.of(), chunks, "test"));
+
+		assertTrue(java.contains("class CHUNKS_1 "), "chunks split over holders");
+		assertTrue(java.contains("class S_1 "), "string table split over holders");
+		assertTrue(java.contains("List.of(join(CHUNKS_0.V, CHUNKS_1.V"), "holders joined back into one list");
+
+		// Every static initializer fits: javac reports "code too large" otherwise
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + KnowledgeCodegen.GENERATED_FILE), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return java;
+			}
+		};
+		StringWriter errors = new StringWriter();
+		boolean compiled = javac.getTask(errors, null, null,
+				List.of("-classpath", System.getProperty("java.class.path"), "-d", dir.toString(), "-proc:none"), null, List.of(file)).call();
+		assertTrue(compiled, errors.toString());
+	}
+
+	@Test
+	void failsWithTheEntryThatCannotFit() {
+		CompanyKnowledge.Subject subject = new CompanyKnowledge.Subject("huge", "fr", "en",
+				Collections.nCopies(20_000, "alias"));
+		IllegalStateException entry = assertThrows(IllegalStateException.class,
+				() -> KnowledgeCodegen.generate(new KnowledgeContent(company(List.of(subject)), List.of(), List.of(), "test")));
+		assertTrue(entry.getMessage().startsWith("subjects[0] needs about "), entry.getMessage());
+
+		ChunkIndex.Chunk chunk = new ChunkIndex.Chunk("long", "é".repeat(40_000), "company", "");
+		IllegalStateException text = assertThrows(IllegalStateException.class,
+				() -> KnowledgeCodegen.generate(new KnowledgeContent(company(List.of()), List.of(), List.of(chunk), "test")));
+		assertTrue(text.getMessage().contains("80000 bytes of modified UTF-8"), text.getMessage());
+	}
+
+	private static CompanyKnowledge company(List<CompanyKnowledge.Subject> subjects) {
+		return new CompanyKnowledge("Gear9", null, null, null, List.of(), List.of(), List.of(), List.of(), Map.of(),
+				List.of(), List.of(), subjects);
+	}
+}
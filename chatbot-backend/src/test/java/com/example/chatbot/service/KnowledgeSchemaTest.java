@@ -0,0 +1,50 @@
+package com.example.chatbot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnowledgeSchemaTest {
+
+	private final KnowledgeSchema schema = KnowledgeSchema.classpath();
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private List<String> validate(String json) throws Exception {
+		return schema.validate(mapper.readTree(json));
+	}
+
+	@Test
+	void acceptsTheShippedDataJson() throws Exception {
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(CompanyQaService.DATA_FILE)) {
+			assertEquals(List.of(), schema.validate(mapper.readTree(in)));
+		}
+	}
+
+	@Test
+	void reportsEveryViolationWithItsPath() throws Exception {
+		List<String> errors = validate("""
+				{"data": {"nom_entreprise": "", "adresse": "Casablanca", "services": {},
+				  "projets": [{"id": "a", "nom": "A", "secteur": "Finance"}, {"id": "b", "secteur": 3}],
+				  "realisations_et_recompenses": [{"titre": "T", "annee": 1800}],
+				  "subjects": {"x": {"aliases": [], "answer_fr": "Oui"}}}}""");
+		assertEquals(List.of(
+				"/data/nom_entreprise: shorter than 1 characters",
+				"/data/services: expected array, found object",
+				"/data/projets/1: missing \"nom\"",
+				"/data/projets/1/secteur: expected string, found integer",
+				"/data/realisations_et_recompenses/0/annee: below 1900",
+				"/data/subjects/x: \"answer_fr\" requires \"answer_en\"",
+				"/data/subjects/x/aliases: fewer than 1 items"), errors);
+	}
+
+	@Test
+	void requiresTheDataObject() throws Exception {
+		assertEquals(List.of("/: missing \"data\""), validate("{\"chunks\": []}"));
+		assertTrue(validate("[]").get(0).startsWith("/: expected object"));
+	}
+}
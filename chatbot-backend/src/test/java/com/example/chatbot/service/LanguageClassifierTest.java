@@ -0,0 +1,42 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanguageClassifierTest {
+
+	private final LanguageClassifier classifier = new LanguageClassifier(false);
+
+	@Test
+	void markerWordsDecide() {
+		assertEquals("en", classifier.detect("What is your address?"));
+		assertEquals("en", classifier.detect("Tell me about Gear9"));
+		assertEquals("fr", classifier.detect("Quels sont vos projets dans le secteur public ?"));
+		assertEquals("fr", classifier.detect("Bonjour, quelle est votre adresse"));
+	}
+
+	@Test
+	void accentsCountAsFrench() {
+		assertEquals("fr", classifier.detect("récompenses 2024"));
+		assertEquals("fr", classifier.detect("Où êtes-vous situés ?"));
+	}
+
+	@Test
+	void matchesWholeWordsOnly() {
+		// "the" inside "theme", "hi" inside "machine" must not count
+		assertNull(classifier.detect("theme machine"));
+		assertTrue(LanguageClassifier.score("THE COMPANY") > 0);
+	}
+
+	@Test
+	void undecidedWithoutFallback() {
+		assertNull(classifier.detect("Salesforce Tableau"));
+		assertNull(classifier.detect(""));
+		assertEquals("fr", classifier.detectOrDefault("Salesforce Tableau", "fr"));
+		assertFalse(classifier.isEnglish("Salesforce Tableau"));
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplyCacheTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private String load(String value) {
+		calls.incrementAndGet();
+		return value;
+	}
+
+	@Test
+	void expiresAndEvictsLeastRecentlyUsed() {
+		ReplyCache cache = new ReplyCache(2, 1000, now::get);
+		cache.get("a", () -> load("A"), r -> true);
+		cache.get("b", () -> load("B"), r -> true);
+		cache.get("a", () -> load("A"), r -> true);
+		cache.get("c", () -> load("C"), r -> true); // evicts b
+		cache.get("b", () -> load("B"), r -> true);
+		assertEquals(4, calls.get());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		cache.get("c", () -> load("C"), r -> true);
+		assertEquals(5, calls.get());
+		ReplyCache.Stats stats = cache.stats();
+		assertEquals(1, stats.hits());
+		assertEquals(5, stats.misses());
+	}
+
+	@Test
+	void neverStoresRejectedReplies() {
+		ReplyCache cache = new ReplyCache(10, 1000, now::get);
+		cache.get("q", () -> load("quota"), r -> !r.equals("quota"));
+		cache.get("q", () -> load("quota"), r -> !r.equals("quota"));
+		assertEquals(2, calls.get());
+		assertEquals(0, cache.stats().size());
+	}
+
+	@Test
+	void concurrentMissesShareOneCall() throws Exception {
+		ReplyCache cache = new ReplyCache(10, 60_000);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = pool.submit(() -> cache.get("k", () -> {
+					calls.incrementAndGet();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return "V";
+				}, r -> true));
+			}
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<?> f : futures) assertEquals("V", f.get(5, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionStoreTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void staysBoundedUnderManyConversations() {
+		SessionStore store = new SessionStore(160, 0, now::get);
+		for (int i = 0; i < 10_000; i++) store.put("conv-" + i, "fr");
+		SessionStore.Stats stats = store.stats();
+		assertTrue(stats.size() <= 160);
+		assertEquals(10_000 - stats.size(), stats.evictions());
+		assertEquals("fr", store.get("conv-9999"));
+	}
+
+	@Test
+	void forgetsIdleConversations() {
+		SessionStore store = new SessionStore(100, 1000, now::get);
+		store.put("a", "en");
+		store.put("b", "fr");
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+		assertEquals("en", store.get("a")); // touching "a" keeps it alive
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+		assertEquals("en", store.get("a"));
+		assertNull(store.get("b"));
+		assertEquals(1, store.stats().expirations());
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SimilarReplyCacheTest {
+
+	private static final String CONTEXT = "Company: Gear9\nServices: Salesforce consulting";
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void reusesRepliesAcrossParaphrases() {
+		SimilarReplyCache cache = new SimilarReplyCache(10, 3, 1000, now::get);
+		cache.put("en", CONTEXT, "What does Gear9 do in Salesforce?", "Salesforce consulting");
+		assertEquals("Salesforce consulting", cache.get("en", CONTEXT, "gear9 salesforce, what do you do"));
+		assertEquals("Salesforce consulting", cache.get("en", CONTEXT, "What does GEAR9 do in salesforce"));
+		assertNull(cache.get("en", CONTEXT, "Where is your office?"));
+		assertEquals(2, cache.stats().hits());
+	}
+
+	@Test
+	void scopesByLanguageAndExpires() {
+		SimilarReplyCache cache = new SimilarReplyCache(10, 3, 1000, now::get);
+		cache.put("fr", CONTEXT, "quels sont vos projets ?", "Projets");
+		assertNull(cache.get("en", CONTEXT, "quels sont vos projets"));
+		assertEquals("Projets", cache.get("fr", CONTEXT, "vos projets ?"));
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		assertNull(cache.get("fr", CONTEXT, "vos projets ?"));
+		assertEquals(0, cache.stats().size());
+	}
+
+	@Test
+	void scopesByContextAndClears() {
+		SimilarReplyCache cache = new SimilarReplyCache(10, 3, 1000, now::get);
+		cache.put("en", CONTEXT, "What does Gear9 do in Salesforce?", "Salesforce consulting");
+		// Same paraphrase, facts from another snapshot or other retrieved chunks
+		assertNull(cache.get("en", "Company: Gear9\nServices: Salesforce and data", "What does GEAR9 do in salesforce"));
+		assertNull(cache.get("en", null, "What does GEAR9 do in salesforce"));
+		assertEquals("Salesforce consulting", cache.get("en", CONTEXT, "What does GEAR9 do in salesforce"));
+
+		cache.clear();
+		assertNull(cache.get("en", CONTEXT, "What does GEAR9 do in salesforce"));
+		assertEquals(0, cache.stats().size());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		SimilarReplyCache cache = new SimilarReplyCache(2, 3, 1000, now::get);
+		cache.put("en", CONTEXT, "projects", "P");
+		cache.put("en", CONTEXT, "awards", "A");
+		cache.get("en", CONTEXT, "projects");
+		cache.put("en", CONTEXT, "address", "Casablanca");
+		assertEquals("P", cache.get("en", CONTEXT, "projects"));
+		assertNull(cache.get("en", CONTEXT, "awards"));
+		assertEquals(2, cache.stats().size());
+	}
+
+	@Test
+	void ignoresQuestionsWithoutTerms() {
+		SimilarReplyCache cache = new SimilarReplyCache(10, 3, 1000, now::get);
+		cache.put("en", CONTEXT, "what is it?", "?");
+		assertEquals(0, cache.stats().size());
+		assertEquals(0, SimilarReplyCache.fingerprint("the"));
+	}
+}
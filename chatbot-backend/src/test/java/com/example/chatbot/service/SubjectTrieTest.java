@@ -0,0 +1,35 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SubjectTrieTest {
+
+	private final SubjectTrie trie = SubjectTrie.build(List.of(
+			"Salesforce", "Régie", "Marketing Cloud", "Sales Cloud", "Secteur public", "Expérience client"));
+
+	@Test
+	void completesWholeSubjectsBeforeLaterWords() {
+		assertEquals(List.of("Salesforce", "Sales Cloud"), trie.suggest("sales", 10));
+		assertEquals(List.of("Marketing Cloud", "Sales Cloud"), trie.suggest("cloud", 10));
+		assertEquals(List.of("Salesforce", "Sales Cloud", "Secteur public"), trie.suggest("s", 10));
+	}
+
+	@Test
+	void ignoresCaseAndAccents() {
+		assertEquals(List.of("Régie"), trie.suggest("  REGI", 10));
+		assertEquals(List.of("Expérience client"), trie.suggest("experi", 10));
+		assertEquals(List.of("Expérience client"), trie.suggest("clié", 10));
+	}
+
+	@Test
+	void honoursLimitAndUnknownPrefixes() {
+		assertEquals(List.of("Salesforce", "Régie"), trie.suggest("", 2));
+		assertEquals(List.of("Salesforce"), trie.suggest("sa", 1));
+		assertEquals(List.of(), trie.suggest("zz", 5));
+		assertEquals(List.of(), trie.suggest("sa", 0));
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TextFoldTest {
+
+	// The Normalizer + regex folding TextFold replaces
+	private static String nfdFold(String s) {
+		String lower = s.toLowerCase(Locale.ROOT).trim();
+		return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+	}
+
+	@Test
+	void matchesNfdFoldingOverLatin() {
+		StringBuilder all = new StringBuilder();
+		for (char c = 'A'; c < 0x180; c++) {
+			if (c == 0x130) continue; // İ lower-cases to two chars; folds to "i" either way
+			all.append(c);
+		}
+		assertEquals(nfdFold(all.toString()), TextFold.foldTrimmed(all.toString()));
+		for (String q : new String[]{"  Où êtes-vous situés ? ", "RÉGIE Salesforce", "Quelles récompenses depuis 2024 ?",
+				"cœur de métier", "été", "c’est quoi Gear9 — l’agence"}) {
+			assertEquals(nfdFold(q), TextFold.foldTrimmed(q), q);
+		}
+	}
+
+	@Test
+	void returnsFoldedTextAsIs() {
+		String q = "what services do you offer?";
+		assertSame(q, TextFold.foldTrimmed(q));
+		assertEquals("ou etes", TextFold.fold("Où Êtes"));
+		assertEquals(" are ", TextFold.fold(" ARE "));
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranslationMemoryTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void survivesReopening() {
+		Path file = dir.resolve("tm.bin");
+		String hello = TranslationMemory.key("translate", "gemini", "en", "Bonjour");
+		String big = TranslationMemory.key("translate", "gemini", "en", "long");
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			assertTrue(memory.persistent());
+			memory.put(hello, "Hello");
+			memory.put(big, "x".repeat(200_000)); // grows the mapping
+		}
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			assertEquals(2, memory.size());
+			assertEquals("Hello", memory.get(hello));
+			assertEquals(200_000, memory.get(big).length());
+		}
+	}
+
+	@Test
+	void keysDependOnEveryPart() {
+		String key = TranslationMemory.key("translate", "gemini", "en", "Bonjour");
+		assertNotEquals(key, TranslationMemory.key("reformulate", "gemini", "en", "Bonjour"));
+		assertNotEquals(key, TranslationMemory.key("translate", "gemini-2", "en", "Bonjour"));
+		assertNotEquals(key, TranslationMemory.key("translate", "gemini", "fr", "Bonjour"));
+	}
+
+	@Test
+	void stopsAtACorruptRecordAndKeepsAppending() throws Exception {
+		Path file = dir.resolve("tm.bin");
+		String first = TranslationMemory.key("translate", "m", "en", "un");
+		String second = TranslationMemory.key("translate", "m", "en", "deux");
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			memory.put(first, "one");
+			memory.put(second, "two");
+		}
+		try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+			// Last byte of the second record's text: header (4) + first record (40 + 3) + second header (40) + 2
+			raw.seek(4 + 43 + 40 + 2);
+			raw.write('X');
+		}
+		String third = TranslationMemory.key("translate", "m", "en", "trois");
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			assertEquals("one", memory.get(first));
+			assertNull(memory.get(second));
+			memory.put(third, "three");
+		}
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			assertEquals(2, memory.size());
+			assertEquals("three", memory.get(third));
+		}
+	}
+
+	@Test
+	void skipsEmptyValuesSoLaterRecordsSurvive() {
+		Path file = dir.resolve("tm.bin");
+		String empty = TranslationMemory.key("translate", "m", "en", "Bonjour !");
+		String after = TranslationMemory.key("translate", "m", "en", "merci");
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			memory.put(empty, "");
+			assertNull(memory.get(empty));
+			memory.put(after, "thanks");
+		}
+		try (TranslationMemory memory = TranslationMemory.open(file)) {
+			assertEquals(1, memory.size());
+			assertEquals("thanks", memory.get(after));
+		}
+	}
+
+	@Test
+	void keepsEntriesInMemoryWithoutAFile() {
+		TranslationMemory memory = TranslationMemory.open(null);
+		memory.put("00", "zero");
+		assertEquals("zero", memory.get("00"));
+		assertEquals(false, memory.persistent());
+	}
+}
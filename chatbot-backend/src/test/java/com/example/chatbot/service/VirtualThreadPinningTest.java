@@ -0,0 +1,117 @@
+package com.example.chatbot.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load check behind the virtual-thread mode: many virtual threads contend on ReplyCache
+ * (including followers waiting on a slow leader) and SessionStore, and JFR must report no
+ * jdk.VirtualThreadPinned event in their frames. The control case proves the recording sees
+ * pinning at all. From JDK 24 on, monitors no longer pin, so the check only runs on 21 to 23.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+class VirtualThreadPinningTest {
+
+	private static final int THREADS = 200;
+
+	private final Object monitor = new Object();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void cacheAndSessionStoreDoNotPinUnderContention() throws Exception {
+		ReplyCache cache = new ReplyCache(50, 60_000);
+		SessionStore sessions = new SessionStore(100, 60_000);
+		List<RecordedEvent> pinned = record("app", () -> run(i -> {
+			String key = "q" + (i % 10);
+			String reply = cache.get(key, () -> {
+				sleep(5);
+				return "reply " + key;
+			}, r -> true);
+			assertEquals("reply " + key, reply);
+			sessions.put("c" + (i % 150), i % 2 == 0 ? "fr" : "en");
+			sessions.get("c" + ((i + 1) % 150));
+		}));
+		List<String> inApp = new ArrayList<>();
+		for (RecordedEvent e : pinned) {
+			for (RecordedFrame f : e.getStackTrace().getFrames()) {
+				String type = f.getMethod().getType().getName();
+				if (type.equals(ReplyCache.class.getName()) || type.equals(SessionStore.class.getName())) {
+					inApp.add(type + "." + f.getMethod().getName() + ":" + f.getLineNumber());
+				}
+			}
+		}
+		assertEquals(List.of(), inApp);
+	}
+
+	@Test
+	void recordingSeesPinningInsideAMonitor() throws Exception {
+		List<RecordedEvent> pinned = record("control", () -> run(i -> {
+			synchronized (monitor) {
+				sleep(1);
+			}
+		}));
+		assertTrue(!pinned.isEmpty(), "blocking inside synchronized should pin");
+	}
+
+	private List<RecordedEvent> record(String name, ThrowingRunnable load) throws Exception {
+		Path file = dir.resolve(name + ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+			recording.start();
+			load.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = new ArrayList<>();
+		for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+			if (e.getEventType().getName().equals("jdk.VirtualThreadPinned") && e.getStackTrace() != null) events.add(e);
+		}
+		return events;
+	}
+
+	private static void run(IntTask task) throws Exception {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("pinning-check-");
+		executor.setVirtualThreads(true);
+		List<CompletableFuture<Void>> all = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			int n = i;
+			all.add(CompletableFuture.runAsync(() -> task.run(n), executor));
+		}
+		CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private interface IntTask {
+		void run(int i);
+	}
+
+	private interface ThrowingRunnable {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordTokensTest {
+
+	private static List<String> words(String text) {
+		WordTokens tokens = WordTokens.of(text);
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < tokens.size(); i++) words.add(tokens.word(i));
+		return words;
+	}
+
+	@Test
+	void matchesWholeWordsOnly() {
+		WordTokens tokens = WordTokens.of("ou est gear9 ? about you");
+		assertTrue(tokens.contains("ou"));
+		assertTrue(tokens.containsAny("where", "est"));
+		assertFalse(tokens.contains("about you"));
+		// "ou" inside "about", "you" or "vous" is not a word
+		assertFalse(WordTokens.of("tell me about you").contains("ou"));
+		assertFalse(WordTokens.of("que proposez-vous").contains("ou"));
+		assertFalse(tokens.containsAny((String) null));
+		assertEquals(0, WordTokens.of(null).size());
+	}
+
+	@Test
+	void splitsOnApostrophesHyphensAndLetterDigitChanges() {
+		assertEquals(List.of("c", "est", "quoi", "gear", "9"), words("c'est quoi gear9"));
+		assertEquals(List.of("qui", "etes", "vous"), words("qui etes-vous"));
+		assertEquals(List.of("l", "agence"), words("l’agence"));
+		WordTokens tokens = WordTokens.of("  depuis 2023, ");
+		assertEquals(2, tokens.start(0));
+		assertEquals(8, tokens.end(0));
+		assertEquals(9, tokens.start(1));
+		assertEquals(13, tokens.end(1));
+	}
+
+	@Test
+	void keepsAccentedLettersInWords() {
+		assertEquals(List.of("où", "êtes", "vous", "situés"), words("où êtes-vous situés ?"));
+		assertTrue(WordTokens.of("régie salesforce").contains("régie"));
+		assertFalse(WordTokens.of("régie salesforce").contains("gie"));
+	}
+
+	@Test
+	void findsTheFirstStandaloneYear() {
+		assertEquals(2023, WordTokens.of("awards since 2023 and 2024").firstYear());
+		assertEquals(1999, WordTokens.of("depuis 1999").firstYear());
+		assertEquals(2024, WordTokens.of("prix2024").firstYear());
+		assertNull(WordTokens.of("12345 or 20245 or 2100 or 1800").firstYear());
+		assertNull(WordTokens.of("no year here").firstYear());
+	}
+}
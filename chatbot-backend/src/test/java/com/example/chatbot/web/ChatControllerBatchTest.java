@@ -0,0 +1,103 @@
+package com.example.chatbot.web;
+
+import com.example.chatbot.dto.ChatBatchResult;
+import com.example.chatbot.dto.ChatRequest;
+import com.example.chatbot.service.ChatMetrics;
+import com.example.chatbot.service.CompanyQaService;
+import com.example.chatbot.service.ConversationSessionService;
+import com.example.chatbot.service.GeminiService;
+import com.example.chatbot.service.LanguageClassifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatControllerBatchTest {
+
+	private final GeminiService gemini = mock(GeminiService.class);
+	private final CompanyQaService qa = mock(CompanyQaService.class);
+	private final ChatBatchPools pools = new ChatBatchPools(2, 2);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private ChatController controller;
+
+	@BeforeEach
+	void setUp() {
+		ConversationSessionService sessions = new ConversationSessionService(new LanguageClassifier(false), 100, 60_000);
+		controller = new ChatController(gemini, qa, sessions, new ChatStreamPool(1, false),
+				new ChatMetrics(registry), pools);
+		ReflectionTestUtils.setField(controller, "batchMaxItems", 3);
+		ReflectionTestUtils.setField(controller, "batchTimeoutMs", 300L);
+		when(qa.buildContext(anyString())).thenReturn("");
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		pools.shutdown();
+	}
+
+	@Test
+	void rejectsNullItemsAndOversizedBatches() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.batch(Arrays.asList(request("hello"), null)).getStatusCode());
+		List<ChatRequest> four = List.of(request("a"), request("b"), request("c"), request("d"));
+		assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, controller.batch(four).getStatusCode());
+	}
+
+	@Test
+	void reportsGeminiAnswersPastTheDeadlineAsTimeouts() throws InterruptedException {
+		when(qa.answer(eq("direct"), eq(true))).thenReturn("From the data");
+		when(gemini.generateReply(eq("fast"), anyString(), anyString())).thenReturn("From Gemini");
+		when(gemini.generateReply(eq("stuck"), anyString(), anyString())).thenAnswer(call -> {
+			release.await(10, TimeUnit.SECONDS);
+			return "Too late";
+		});
+
+		long start = System.nanoTime();
+		ResponseEntity<List<ChatBatchResult>> response = controller.batch(List.of(request("direct"), request("fast"), request("stuck")));
+		long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		List<ChatBatchResult> results = response.getBody();
+		assertEquals(List.of(ChatMetrics.TIER_DIRECT, ChatMetrics.TIER_GEMINI, ChatMetrics.TIER_TIMEOUT),
+				results.stream().map(ChatBatchResult::getTier).toList());
+		assertEquals("From the data", results.get(0).getReply());
+		assertEquals("From Gemini", results.get(1).getReply());
+		assertTrue(results.get(2).getReply().startsWith("I'm sorry"));
+		assertTrue(tookMs < 5_000, "batch waited " + tookMs + " ms");
+
+		// The late Gemini answer finishes after the response and must not count as served too
+		release.countDown();
+		pools.shutdown();
+		assertTrue(pools.gemini().awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(1.0, served(ChatMetrics.TIER_DIRECT));
+		assertEquals(1.0, served(ChatMetrics.TIER_GEMINI));
+		assertEquals(1.0, served(ChatMetrics.TIER_TIMEOUT));
+	}
+
+	private double served(String tier) {
+		return registry.counter("chatbot.requests", "tier", tier).count();
+	}
+
+	private static ChatRequest request(String message) {
+		ChatRequest request = new ChatRequest();
+		request.setMessage(message);
+		request.setLanguage("en");
+		return request;
+	}
+}
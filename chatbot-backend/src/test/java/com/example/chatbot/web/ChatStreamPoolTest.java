@@ -0,0 +1,47 @@
+package com.example.chatbot.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatStreamPoolTest {
+
+	@Test
+	void refusesStreamsPastTheLimitAndFreesSlotsWhenTheyEnd() throws Exception {
+		ChatStreamPool pool = new ChatStreamPool(2, false);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch running = new CountDownLatch(2);
+		Runnable stream = () -> {
+			running.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		try {
+			assertTrue(pool.tryExecute(stream));
+			assertTrue(pool.tryExecute(stream));
+			assertTrue(running.await(5, TimeUnit.SECONDS));
+			assertFalse(pool.tryExecute(stream));
+
+			release.countDown();
+			CountDownLatch done = new CountDownLatch(1);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			boolean started = false;
+			while (!started && System.nanoTime() < deadline) {
+				started = pool.tryExecute(done::countDown);
+				if (!started) Thread.sleep(5);
+			}
+			assertTrue(started);
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			pool.shutdown();
+		}
+	}
+}